@@ -0,0 +1,264 @@
+package com.automation.analytics;
+
+import com.automation.base.BasePage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the WebDriver commands a test sends, broken down by the page-object
+ * method that issued them (the outermost {@link BasePage} frame on the stack;
+ * "(test)" for calls made directly from test code).
+ *
+ * One auditor per test session: {@link #start} makes it the thread's current
+ * auditor, BaseTest adds it to the session's EventFiringDecorator listeners,
+ * {@link #finish} emits a "webdriver.commands.test" event and adds the counts
+ * to the suite totals.
+ * Driver time is the wall-clock time spent inside counted calls. Calls that
+ * never leave the JVM (manage(), navigate(), toString(), ...) are not counted.
+ * Disable with -Dcommand.audit=false.
+ */
+public class CommandAuditor implements WebDriverListener {
+
+    private static final Logger logger = LogManager.getLogger(CommandAuditor.class);
+    private static final String TEST_CODE = "(test)";
+    // Accessors and local helpers on decorated objects that do not send a command
+    private static final Set<String> LOCAL_CALLS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "manage", "navigate", "switchTo", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "getCapabilities", "getSessionId", "getCommandExecutor",
+            "getDevTools", "maybeGetDevTools", "getCoordinates", "getId", "toJson",
+            "toString", "equals", "hashCode")));
+    // Reflection frames are shown so the walk can stop at Method.invoke (see currentPageMethod)
+    private static final StackWalker stackWalker = StackWalker.getInstance(EnumSet.of(
+            StackWalker.Option.RETAIN_CLASS_REFERENCE, StackWalker.Option.SHOW_REFLECT_FRAMES));
+    private static final ThreadLocal<CommandAuditor> current = new ThreadLocal<>();
+
+    private static final AtomicLong suiteTests = new AtomicLong();
+    private static final AtomicLong suiteCommands = new AtomicLong();
+    private static final Map<String, AtomicLong> suiteByPageMethod = new ConcurrentHashMap<>();
+
+    private final String testName;
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong driverNanos = new AtomicLong();
+    // Commands and driver time already spent (in setUp) when the test method started
+    private volatile long testStartCommands;
+    private volatile long testStartDriverNanos;
+    private volatile Map<String, Long> testStartByPageMethod = Collections.emptyMap();
+    private volatile Map<String, Long> testStartMillisByPageMethod = Collections.emptyMap();
+    private final Map<String, AtomicLong> byPageMethod = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> nanosByPageMethod = new ConcurrentHashMap<>();
+    // Page method and start time of the calls in flight on each thread
+    private final ThreadLocal<Deque<Object[]>> inFlight = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public CommandAuditor(String testName) {
+        this.testName = testName;
+    }
+
+    /**
+     * Create an auditor for a test and make it the current thread's auditor.
+     */
+    public static CommandAuditor start(String testName) {
+        CommandAuditor auditor = new CommandAuditor(testName);
+        current.set(auditor);
+        return auditor;
+    }
+
+    /**
+     * The auditor of the test running on this thread, or null.
+     */
+    public static CommandAuditor current() {
+        return current.get();
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("command.audit", "true"));
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (isLocalCall(method)) {
+            return;
+        }
+        String pageMethod = currentPageMethod();
+        commands.incrementAndGet();
+        byPageMethod.computeIfAbsent(pageMethod, k -> new AtomicLong()).incrementAndGet();
+        inFlight.get().push(new Object[] {pageMethod, System.nanoTime()});
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        completed(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        completed(method);
+    }
+
+    private void completed(Method method) {
+        if (isLocalCall(method)) {
+            return;
+        }
+        Object[] call = inFlight.get().poll();
+        if (call == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - (Long) call[1];
+        driverNanos.addAndGet(elapsed);
+        nanosByPageMethod.computeIfAbsent((String) call[0], k -> new AtomicLong()).addAndGet(elapsed);
+    }
+
+    /**
+     * True for calls on decorated objects that are answered locally without a command.
+     */
+    public static boolean isLocalCall(Method method) {
+        return LOCAL_CALLS.contains(method.getName());
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public long getCommandCount() {
+        return commands.get();
+    }
+
+    public long getDriverMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(driverNanos.get());
+    }
+
+    /**
+     * Mark the start of the test method, so the getTest* figures leave out setUp.
+     */
+    public void markTestStart() {
+        testStartCommands = commands.get();
+        testStartDriverNanos = driverNanos.get();
+        testStartByPageMethod = getCommandsByPageMethod();
+        testStartMillisByPageMethod = getDriverMillisByPageMethod();
+    }
+
+    /**
+     * Commands sent since {@link #markTestStart}; all of them if never marked.
+     */
+    public long getTestCommandCount() {
+        return commands.get() - testStartCommands;
+    }
+
+    /**
+     * Driver time spent since {@link #markTestStart}; all of it if never marked.
+     */
+    public long getTestDriverMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(driverNanos.get() - testStartDriverNanos);
+    }
+
+    /**
+     * Like {@link #getCommandsByPageMethod}, counting only commands since {@link #markTestStart}.
+     */
+    public Map<String, Long> getTestCommandsByPageMethod() {
+        return since(getCommandsByPageMethod(), testStartByPageMethod);
+    }
+
+    /**
+     * Like {@link #getDriverMillisByPageMethod}, counting only time since {@link #markTestStart}.
+     */
+    public Map<String, Long> getTestDriverMillisByPageMethod() {
+        return since(getDriverMillisByPageMethod(), testStartMillisByPageMethod);
+    }
+
+    private static Map<String, Long> since(Map<String, Long> now, Map<String, Long> start) {
+        Map<String, Long> delta = new TreeMap<>();
+        now.forEach((method, value) -> {
+            long grown = value - start.getOrDefault(method, 0L);
+            if (grown > 0) {
+                delta.put(method, grown);
+            }
+        });
+        return delta;
+    }
+
+    /**
+     * Commands per page-object method ("LoginPage.loginAs"), sorted by name.
+     */
+    public Map<String, Long> getCommandsByPageMethod() {
+        Map<String, Long> counts = new TreeMap<>();
+        byPageMethod.forEach((method, count) -> counts.put(method, count.get()));
+        return counts;
+    }
+
+    /**
+     * Driver time in milliseconds per page-object method, sorted by name.
+     */
+    public Map<String, Long> getDriverMillisByPageMethod() {
+        Map<String, Long> millis = new TreeMap<>();
+        nanosByPageMethod.forEach((method, nanos) -> millis.put(method, TimeUnit.NANOSECONDS.toMillis(nanos.get())));
+        return millis;
+    }
+
+    /**
+     * Emit this test's counts and fold them into the suite totals. Clears the
+     * current thread's auditor.
+     */
+    public void finish() {
+        if (current.get() == this) {
+            current.remove();
+        }
+        inFlight.remove();
+        Map<String, Long> counts = getCommandsByPageMethod();
+        suiteTests.incrementAndGet();
+        suiteCommands.addAndGet(commands.get());
+        counts.forEach((method, count) ->
+                suiteByPageMethod.computeIfAbsent(method, k -> new AtomicLong()).addAndGet(count));
+
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("test", testName);
+        attributes.put("commands", String.valueOf(commands.get()));
+        attributes.put("driverMs", String.valueOf(getDriverMillis()));
+        counts.forEach((method, count) -> attributes.put(method, String.valueOf(count)));
+        TestAnalyticsLogger.getInstance().logMetrics("webdriver.commands.test", attributes);
+        logger.info("WebDriver commands for {}: {} in {}ms {}", testName, commands.get(), getDriverMillis(), counts);
+    }
+
+    /**
+     * Suite-level totals across all tests.
+     */
+    public static Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        long tests = suiteTests.get();
+        metrics.put("tests", String.valueOf(tests));
+        metrics.put("commands", String.valueOf(suiteCommands.get()));
+        metrics.put("avgPerTest", String.format("%.1f", tests == 0 ? 0.0 : (double) suiteCommands.get() / tests));
+        for (Map.Entry<String, AtomicLong> entry : new TreeMap<>(suiteByPageMethod).entrySet()) {
+            metrics.put(entry.getKey(), String.valueOf(entry.getValue().get()));
+        }
+        return metrics;
+    }
+
+    private static String currentPageMethod() {
+        // Outermost page frame, so helpers like BasePage.click are charged to the page method calling them.
+        // The walk stops at the reflective call into the test or configuration method instead of
+        // covering the whole TestNG/surefire stack.
+        StackWalker.StackFrame page = stackWalker.walk(frames -> frames
+                .takeWhile(f -> f.getDeclaringClass() != Method.class)
+                .filter(f -> BasePage.class.isAssignableFrom(f.getDeclaringClass()))
+                .reduce((inner, outer) -> outer)
+                .orElse(null));
+        return page != null ? page.getDeclaringClass().getSimpleName() + "." + page.getMethodName() : TEST_CODE;
+    }
+}
@@ -0,0 +1,21 @@
+package com.automation.analytics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bound on the WebDriver commands and driver time a test method may use
+ * (setUp not included). Checked by CommandBudgetListener right
+ * after the test method; a negative value means no limit for that dimension.
+ * Overrides budgets set in testng.xml.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CommandBudget {
+
+    int maxCommands() default -1;
+
+    long maxDriverMillis() default -1;
+}
@@ -0,0 +1,142 @@
+package com.automation.analytics;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency of every WebDriver command into lock-free histograms,
+ * per command name ("get", "findElement", "click", "navigate.to", ...) for the
+ * suite and per command for each test. {@link #logSuiteMetrics} emits
+ * p50/p95/p99 as "webdriver.latency" (suite) and "webdriver.latency.test" events.
+ *
+ * The recorder also times its own callbacks; the average cost per command is
+ * reported as "overheadNsPerCommand". Disable with -Dcommand.latency=false.
+ */
+public class CommandLatencyRecorder implements WebDriverListener {
+
+    private static final Map<String, LatencyHistogram> suite = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, LatencyHistogram>> byTest = new ConcurrentHashMap<>();
+    private static final LongAdder overheadNanos = new LongAdder();
+    private static final LongAdder recorded = new LongAdder();
+
+    private final Map<String, LatencyHistogram> test;
+    // Start times of the calls in flight on each thread
+    private final ThreadLocal<Deque<long[]>> inFlight = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public CommandLatencyRecorder(String testName) {
+        this.test = byTest.computeIfAbsent(testName, k -> new ConcurrentHashMap<>());
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("command.latency", "true"));
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        long entered = System.nanoTime();
+        if (CommandAuditor.isLocalCall(method)) {
+            return;
+        }
+        long[] call = {0, entered};
+        inFlight.get().push(call);
+        // Taken last so the callback's own cost is not part of the command's latency
+        call[0] = System.nanoTime();
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        completed(target, method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        completed(target, method);
+    }
+
+    private void completed(Object target, Method method) {
+        long returned = System.nanoTime();
+        if (CommandAuditor.isLocalCall(method)) {
+            return;
+        }
+        long[] call = inFlight.get().poll();
+        if (call == null) {
+            return;
+        }
+        String command = commandName(target, method);
+        long latency = returned - call[0];
+        suite.computeIfAbsent(command, k -> new LatencyHistogram()).recordNanos(latency);
+        test.computeIfAbsent(command, k -> new LatencyHistogram()).recordNanos(latency);
+        recorded.increment();
+        overheadNanos.add((call[0] - call[1]) + (System.nanoTime() - returned));
+    }
+
+    /**
+     * Name of a command in metrics and traces: the method name for driver and
+     * element calls, qualified ("navigate.to", "window.maximize") otherwise.
+     */
+    public static String commandName(Object target, Method method) {
+        if (target instanceof WebDriver || target instanceof WebElement) {
+            return method.getName();
+        }
+        // Navigation, Options, Window, Timeouts, TargetLocator, Alert
+        String type = method.getDeclaringClass().getSimpleName();
+        if ("TargetLocator".equals(type)) {
+            type = "switchTo";
+        }
+        return Character.toLowerCase(type.charAt(0)) + type.substring(1) + "." + method.getName();
+    }
+
+    /**
+     * Per-command percentiles for the whole suite.
+     */
+    public static Map<String, String> getMetrics() {
+        Map<String, String> metrics = describe(suite);
+        long count = recorded.sum();
+        metrics.put("commands", String.valueOf(count));
+        metrics.put("overheadNsPerCommand", String.valueOf(count == 0 ? 0 : overheadNanos.sum() / count));
+        return metrics;
+    }
+
+    /**
+     * Emit the suite summary and one event per test.
+     */
+    public static void logSuiteMetrics() {
+        TestAnalyticsLogger analytics = TestAnalyticsLogger.getInstance();
+        analytics.logMetrics("webdriver.latency", getMetrics());
+        for (Map.Entry<String, Map<String, LatencyHistogram>> entry : new TreeMap<>(byTest).entrySet()) {
+            Map<String, String> attributes = new LinkedHashMap<>();
+            attributes.put("test", entry.getKey());
+            attributes.putAll(describe(entry.getValue()));
+            analytics.logMetrics("webdriver.latency.test", attributes);
+        }
+    }
+
+    private static Map<String, String> describe(Map<String, LatencyHistogram> histograms) {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram h = entry.getValue();
+            String prefix = entry.getKey() + ".";
+            metrics.put(prefix + "count", String.valueOf(h.getCount()));
+            metrics.put(prefix + "p50Ms", millis(h.percentileMicros(0.50)));
+            metrics.put(prefix + "p95Ms", millis(h.percentileMicros(0.95)));
+            metrics.put(prefix + "p99Ms", millis(h.percentileMicros(0.99)));
+            metrics.put(prefix + "maxMs", millis(h.getMaxMicros()));
+        }
+        return metrics;
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
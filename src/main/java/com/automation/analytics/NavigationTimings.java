@@ -0,0 +1,126 @@
+package com.automation.analytics;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records, per navigation, how long a page took to become ready versus how long
+ * the full load (window load event) took, and emits a "page.navigation" event.
+ *
+ * When the page had not finished loading at readiness time the full load is
+ * measured lazily, on the next navigation or at teardown. If the test left the
+ * page before it finished loading, the reported saving is a lower bound and
+ * "loadObserved" is false.
+ */
+public final class NavigationTimings {
+
+    private static final String LOAD_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0];"
+            + "return { timeOrigin: performance.timeOrigin, loadEventEnd: nav ? nav.loadEventEnd : 0 };";
+
+    private static final ThreadLocal<Pending> pending = new ThreadLocal<>();
+    private static final AtomicLong navigations = new AtomicLong();
+    private static final AtomicLong totalReadyMs = new AtomicLong();
+    private static final AtomicLong totalSavedMs = new AtomicLong();
+
+    private NavigationTimings() {
+    }
+
+    /**
+     * Record that a page became ready, using the timing fields of a readiness probe.
+     */
+    public static void recordReady(WebDriver driver, String page, String strategy, Map<String, Object> probe) {
+        settle(driver);
+        Pending navigation = new Pending(page, driver.getCurrentUrl(), strategy,
+                number(probe.get("timeOrigin")), number(probe.get("now")));
+        double loadEventEnd = number(probe.get("loadEventEnd"));
+        if (loadEventEnd > 0) {
+            emit(navigation, loadEventEnd, true);
+        } else {
+            pending.set(navigation);
+        }
+    }
+
+    /**
+     * Resolve this thread's outstanding navigation, if any. Safe to call at any time.
+     */
+    @SuppressWarnings("unchecked")
+    public static void settle(WebDriver driver) {
+        Pending navigation = pending.get();
+        if (navigation == null) {
+            return;
+        }
+        pending.remove();
+        double loadEventEnd = 0;
+        try {
+            Map<String, Object> timing = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(LOAD_SCRIPT);
+            if (timing != null && Math.abs(number(timing.get("timeOrigin")) - navigation.timeOrigin) < 1) {
+                loadEventEnd = number(timing.get("loadEventEnd"));
+            }
+        } catch (RuntimeException e) {
+            // Browser gone or mid-navigation; fall back to the wall-clock lower bound
+        }
+        if (loadEventEnd > 0) {
+            emit(navigation, loadEventEnd, true);
+        } else {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - navigation.readyAtNanos);
+            emit(navigation, navigation.readyMs + elapsed, false);
+        }
+    }
+
+    /**
+     * Suite-level totals across all threads.
+     */
+    public static Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        long count = navigations.get();
+        metrics.put("navigations", String.valueOf(count));
+        metrics.put("avgReadyMs", String.valueOf(count == 0 ? 0 : totalReadyMs.get() / count));
+        metrics.put("totalSavedMs", String.valueOf(totalSavedMs.get()));
+        return metrics;
+    }
+
+    private static void emit(Pending navigation, double fullLoadMs, boolean loadObserved) {
+        long readyMs = Math.round(navigation.readyMs);
+        long savedMs = Math.max(0, Math.round(fullLoadMs - navigation.readyMs));
+        navigations.incrementAndGet();
+        totalReadyMs.addAndGet(readyMs);
+        totalSavedMs.addAndGet(savedMs);
+
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("page", navigation.page);
+        attributes.put("url", navigation.url);
+        attributes.put("strategy", navigation.strategy);
+        attributes.put("readyMs", String.valueOf(readyMs));
+        attributes.put("fullLoadMs", String.valueOf(Math.round(fullLoadMs)));
+        attributes.put("savedMs", String.valueOf(savedMs));
+        attributes.put("loadObserved", String.valueOf(loadObserved));
+        TestAnalyticsLogger.getInstance().logMetrics("page.navigation", attributes);
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static final class Pending {
+        private final String page;
+        private final String url;
+        private final String strategy;
+        private final double timeOrigin;
+        private final double readyMs;
+        private final long readyAtNanos = System.nanoTime();
+
+        Pending(String page, String url, String strategy, double timeOrigin, double readyMs) {
+            this.page = page;
+            this.url = url;
+            this.strategy = strategy;
+            this.timeOrigin = timeOrigin;
+            this.readyMs = readyMs;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.Map;
 
 /**
  * Logger service that emits structured JSON logs for the analysis pipeline.
@@ -151,6 +152,22 @@ public class TestAnalyticsLogger {
         logEvent(event);
     }
 
+    /**
+     * Log a suite-level metrics snapshot (e.g. driver pool statistics).
+     */
+    public void logMetrics(String metricName, Map<String, String> metrics) {
+        TestLogEvent event = TestLogEvent.builder()
+                .testName(metricName)
+                .environment(environment)
+                .service(serviceName)
+                .level("INFO")
+                .status("METRICS")
+                .message(metricName)
+                .attributes(metrics)
+                .build();
+        logEvent(event);
+    }
+
     private synchronized void writeToFile(String jsonLine) {
         try {
             Files.writeString(logFilePath, jsonLine + System.lineSeparator(),
@@ -0,0 +1,160 @@
+package com.automation.auth;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs in once per user, caches the resulting session cookies and injects them
+ * into new browser sessions so tests can start already authenticated.
+ *
+ * Cached sessions expire after -Dauth.session.ttlSeconds (default 900) or when
+ * their first cookie expires, whichever is sooner, and are refreshed on the next
+ * request. The login itself is done over HTTP (-Dauth.login.mode=http, posting
+ * to -Dauth.login.url) or once in a browser (browser, the default).
+ */
+public class AuthSessionProvider {
+
+    private static final Logger logger = LogManager.getLogger(AuthSessionProvider.class);
+    private static final String DEFAULT_LOGIN_URL = "https://practicetestautomation.com/practice-test-login/";
+
+    private static AuthSessionProvider instance;
+
+    private final CredentialLogin login;
+    private final Duration ttl;
+    private final Map<String, CachedSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong logins = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    public AuthSessionProvider(CredentialLogin login, Duration ttl) {
+        this.login = login;
+        this.ttl = ttl;
+    }
+
+    public static synchronized AuthSessionProvider getInstance() {
+        if (instance == null) {
+            String loginUrl = System.getProperty("auth.login.url", DEFAULT_LOGIN_URL);
+            CredentialLogin login = "http".equalsIgnoreCase(System.getProperty("auth.login.mode", "browser"))
+                    ? new HttpFormLogin(URI.create(loginUrl),
+                            System.getProperty("auth.login.usernameField", "username"),
+                            System.getProperty("auth.login.passwordField", "password"))
+                    : new BrowserLogin(loginUrl, System.getProperty("auth.login.browser", "chrome"));
+            instance = new AuthSessionProvider(login, Duration.ofSeconds(Long.getLong("auth.session.ttlSeconds", 900)));
+        }
+        return instance;
+    }
+
+    /**
+     * Session cookies for the user, logging in only if there is no valid cached session.
+     */
+    public List<Cookie> getCookies(String username, String password) {
+        CachedSession cached = sessions.get(username);
+        if (cached != null && !cached.isExpired()) {
+            cacheHits.incrementAndGet();
+            return cached.cookies;
+        }
+        // compute() serializes concurrent logins for the same user; other users are not blocked
+        return sessions.compute(username, (user, existing) -> {
+            if (existing != null && !existing.isExpired()) {
+                cacheHits.incrementAndGet();
+                return existing;
+            }
+            if (existing != null) {
+                refreshes.incrementAndGet();
+                logger.info("Cached session for '{}' expired, logging in again", user);
+            }
+            try {
+                long start = System.currentTimeMillis();
+                List<Cookie> cookies = login.login(user, password);
+                logins.incrementAndGet();
+                logger.info("Logged in as '{}' in {}ms ({} cookies)", user, System.currentTimeMillis() - start, cookies.size());
+                return new CachedSession(cookies, ttl);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not log in as '" + user + "'", e);
+            }
+        }).cookies;
+    }
+
+    /**
+     * Drop the cached session, e.g. after the application rejected it.
+     */
+    public void invalidate(String username) {
+        sessions.remove(username);
+    }
+
+    /**
+     * Add the cookies to the browser for the given URL's site. Chromium sessions
+     * get them over CDP without a navigation; others visit the site root first.
+     */
+    public void injectInto(WebDriver driver, String url, List<Cookie> cookies) {
+        if (driver instanceof HasCdp) {
+            for (Cookie cookie : cookies) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("name", cookie.getName());
+                params.put("value", cookie.getValue());
+                if (cookie.getDomain() != null) {
+                    params.put("domain", cookie.getDomain());
+                } else {
+                    params.put("url", url);
+                }
+                params.put("path", cookie.getPath() != null ? cookie.getPath() : "/");
+                params.put("secure", cookie.isSecure());
+                params.put("httpOnly", cookie.isHttpOnly());
+                if (cookie.getExpiry() != null) {
+                    params.put("expires", cookie.getExpiry().getTime() / 1000.0);
+                }
+                ((HasCdp) driver).executeCdpCommand("Network.setCookie", params);
+            }
+            return;
+        }
+        URI site = URI.create(url);
+        driver.get(site.getScheme() + "://" + site.getAuthority() + "/");
+        for (Cookie cookie : cookies) {
+            driver.manage().addCookie(cookie);
+        }
+    }
+
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        metrics.put("logins", String.valueOf(logins.get()));
+        metrics.put("cacheHits", String.valueOf(cacheHits.get()));
+        metrics.put("refreshes", String.valueOf(refreshes.get()));
+        metrics.put("cachedUsers", String.valueOf(sessions.size()));
+        return metrics;
+    }
+
+    private static final class CachedSession {
+        private final List<Cookie> cookies;
+        private final long expiresAtMillis;
+
+        CachedSession(List<Cookie> cookies, Duration ttl) {
+            this.cookies = Collections.unmodifiableList(cookies);
+            long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+            for (Cookie cookie : cookies) {
+                if (cookie.getExpiry() != null) {
+                    expiresAt = Math.min(expiresAt, cookie.getExpiry().getTime());
+                }
+            }
+            this.expiresAtMillis = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+}
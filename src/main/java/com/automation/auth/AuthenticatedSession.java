@@ -0,0 +1,16 @@
+package com.automation.auth;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test that should start already logged in: BaseTest injects cached
+ * session cookies from {@link AuthSessionProvider} and opens the landing page
+ * instead of going through the login form.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AuthenticatedSession {
+}
@@ -0,0 +1,70 @@
+package com.automation.auth;
+
+import com.automation.config.CloudConfig;
+import com.automation.driver.LocalDriverFactory;
+import com.automation.pages.LoginPage;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Logs in once through the UI in a throwaway browser and captures its
+ * cookies. Used when the application has no form endpoint that can be posted
+ * to directly.
+ *
+ * The browser is started the same way as the tests' own sessions: locally, or
+ * on BrowserStack/LambdaTest when -Dexecution.env selects a cloud provider.
+ */
+public class BrowserLogin implements CredentialLogin {
+
+    /**
+     * Starts the browser the login runs in.
+     */
+    @FunctionalInterface
+    public interface DriverSource {
+        WebDriver start(String browser) throws IOException;
+    }
+
+    private final String loginUrl;
+    private final String browser;
+    private final DriverSource drivers;
+
+    public BrowserLogin(String loginUrl, String browser) {
+        this(loginUrl, browser, forEnvironment(CloudConfig.getExecutionEnv()));
+    }
+
+    public BrowserLogin(String loginUrl, String browser, DriverSource drivers) {
+        this.loginUrl = loginUrl;
+        this.browser = browser;
+        this.drivers = drivers;
+    }
+
+    /**
+     * Driver source matching the execution environment tests run in.
+     */
+    public static DriverSource forEnvironment(CloudConfig.ExecutionEnv env) {
+        switch (env) {
+            case BROWSERSTACK:
+                return name -> CloudConfig.createBrowserStackDriver(name, "auth-login");
+            case LAMBDATEST:
+                return name -> CloudConfig.createLambdaTestDriver(name, "auth-login");
+            case LOCAL:
+            default:
+                return LocalDriverFactory::createLocalDriver;
+        }
+    }
+
+    @Override
+    public List<Cookie> login(String username, String password) throws IOException {
+        WebDriver driver = drivers.start(browser);
+        try {
+            new LoginPage(driver).open(loginUrl).loginAs(username, password);
+            return new ArrayList<>(driver.manage().getCookies());
+        } finally {
+            LocalDriverFactory.quit(driver);
+        }
+    }
+}
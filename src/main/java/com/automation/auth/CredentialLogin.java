@@ -0,0 +1,15 @@
+package com.automation.auth;
+
+import org.openqa.selenium.Cookie;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Performs a real login and returns the session cookies it produced.
+ */
+@FunctionalInterface
+public interface CredentialLogin {
+
+    List<Cookie> login(String username, String password) throws IOException;
+}
@@ -0,0 +1,118 @@
+package com.automation.auth;
+
+import org.openqa.selenium.Cookie;
+
+import java.io.IOException;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs in by posting the login form over plain HTTP, following redirects by
+ * hand so that cookies set on every hop are captured.
+ */
+public class HttpFormLogin implements CredentialLogin {
+
+    private static final int MAX_REDIRECTS = 5;
+
+    private final URI loginUrl;
+    private final String usernameField;
+    private final String passwordField;
+    private final HttpClient client;
+
+    public HttpFormLogin(URI loginUrl, String usernameField, String passwordField) {
+        this.loginUrl = loginUrl;
+        this.usernameField = usernameField;
+        this.passwordField = passwordField;
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @Override
+    public List<Cookie> login(String username, String password) throws IOException {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put(usernameField, username);
+        form.put(passwordField, password);
+        String body = form.entrySet().stream()
+                .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+                .collect(Collectors.joining("&"));
+
+        Map<String, Cookie> cookies = new LinkedHashMap<>();
+        HttpRequest request = HttpRequest.newBuilder(loginUrl)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        for (int hop = 0; hop <= MAX_REDIRECTS; hop++) {
+            HttpResponse<Void> response = send(request);
+            URI uri = response.uri();
+            for (String header : response.headers().allValues("Set-Cookie")) {
+                for (HttpCookie parsed : HttpCookie.parse(header)) {
+                    cookies.put(parsed.getName(), toSeleniumCookie(parsed, uri));
+                }
+            }
+            int status = response.statusCode();
+            String location = response.headers().firstValue("Location").orElse(null);
+            if (status >= 300 && status < 400 && location != null) {
+                request = HttpRequest.newBuilder(uri.resolve(location))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Cookie", cookieHeader(cookies))
+                        .GET()
+                        .build();
+                continue;
+            }
+            if (status >= 400 || cookies.isEmpty()) {
+                throw new IOException("Login as '" + username + "' at " + loginUrl + " failed: HTTP " + status
+                        + (cookies.isEmpty() ? ", no session cookie set" : ""));
+            }
+            return new ArrayList<>(cookies.values());
+        }
+        throw new IOException("Login at " + loginUrl + " redirected more than " + MAX_REDIRECTS + " times");
+    }
+
+    private HttpResponse<Void> send(HttpRequest request) throws IOException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during login", e);
+        }
+    }
+
+    private static Cookie toSeleniumCookie(HttpCookie cookie, URI origin) {
+        Cookie.Builder builder = new Cookie.Builder(cookie.getName(), cookie.getValue())
+                .domain(cookie.getDomain() != null ? cookie.getDomain() : origin.getHost())
+                .path(cookie.getPath() != null ? cookie.getPath() : "/")
+                .isSecure(cookie.getSecure())
+                .isHttpOnly(cookie.isHttpOnly());
+        // Only a positive max-age is an expiry; -1 (none given) and 0 are kept as session cookies
+        if (cookie.getMaxAge() > 0) {
+            builder.expiresOn(new Date(System.currentTimeMillis() + cookie.getMaxAge() * 1000L));
+        }
+        return builder.build();
+    }
+
+    private static String cookieHeader(Map<String, Cookie> cookies) {
+        return cookies.values().stream()
+                .map(c -> c.getName() + "=" + c.getValue())
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -1,41 +1,192 @@
 package com.automation.base;
 
+import com.automation.analytics.NavigationTimings;
+import com.automation.config.CloudConfig;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedCondition;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.ui.Select;
 
+import java.lang.reflect.Field;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class BasePage {
 
     protected WebDriver driver;
-    protected WebDriverWait wait;
+    // Log descriptions of this page's reflectively bound elements, by identity so lookups never call the element
+    private final Map<WebElement, String> descriptions = new IdentityHashMap<>();
+    // Single wait subsystem for all page actions; the driver's implicit wait is kept at zero
+    protected WaitEngine waits;
+    // Resolved @FindBy elements for this page; null on the PageFactory path with -Delement.cache=false
+    protected ElementCache elements;
     protected static final Logger logger = LogManager.getLogger(BasePage.class);
-    private static final int DEFAULT_TIMEOUT = 10;
-    private static final int MAX_RETRIES = 3;
+    // Element fields per page class, found once per class rather than per log line
+    private static final Map<Class<?>, List<Field>> elementFields = new ConcurrentHashMap<>();
+    private static final long READY_TIMEOUT_SECONDS = Long.getLong("page.ready.timeoutSeconds", 30);
+    // "Stable" for absence checks: DOM parsed and no mutations for a short quiet window
+    private static final PageReadiness STABLE_PAGE = PageReadiness.builder()
+            .domQuietFor(Duration.ofMillis(Long.getLong("wait.absence.quietMs", 150)))
+            .build();
+
+    // Runs form steps from arguments[1] until one needs native input; returns how far it got and why it stopped
+    private static final String FORM_SCRIPT =
+            "var steps = arguments[0], from = arguments[1];"
+            + "function setValue(el, v) {"
+            + "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype"
+            + "    : el instanceof HTMLSelectElement ? HTMLSelectElement.prototype : HTMLInputElement.prototype;"
+            + "  var desc = Object.getOwnPropertyDescriptor(proto, 'value');"
+            + "  if (desc && desc.set) { desc.set.call(el, v); } else { el.value = v; }"
+            + "  el.dispatchEvent(new Event('input', { bubbles: true }));"
+            + "  el.dispatchEvent(new Event('change', { bubbles: true }));"
+            + "}"
+            + "for (var i = from; i < steps.length; i++) {"
+            + "  var s = steps[i], el = document.querySelector(s.css);"
+            + "  if (s.native) return { done: i, stop: 'native input requested' };"
+            + "  if (!el) return { done: i, stop: 'not present' };"
+            + "  if (el.getClientRects().length === 0) return { done: i, stop: 'not visible' };"
+            + "  if (el.disabled) return { done: i, stop: 'disabled' };"
+            + "  if (s.action === 'TYPE') {"
+            + "    if (el.readOnly) return { done: i, stop: 'read-only' };"
+            + "    el.focus(); setValue(el, s.value);"
+            + "  } else if (s.action === 'CLICK') {"
+            + "    el.click();"
+            + "  } else if (s.action === 'SELECT') {"
+            + "    var opt = Array.prototype.find.call(el.options || [], function (o) {"
+            + "      return o.text.trim() === s.value || o.value === s.value; });"
+            + "    if (!opt) return { done: i, stop: 'no option ' + s.value };"
+            + "    setValue(el, opt.value);"
+            + "  } else if (s.action === 'CHECK') {"
+            + "    if (el.checked !== (s.value === 'true')) el.click();"
+            + "  }"
+            + "}"
+            + "return { done: steps.length, stop: null };";
 
     public BasePage(WebDriver driver) {
+        this(driver, null);
+    }
+
+    /**
+     * Construct a page whose elements are assigned by a generated binder
+     * ({@code <Page>Locators::bind}) instead of PageFactory reflection.
+     * -Dpage.binding=reflection forces the PageFactory path for comparison.
+     */
+    protected BasePage(WebDriver driver, PageBinder binder) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT));
-        PageFactory.initElements(driver, this);
+        this.waits = new WaitEngine(driver);
+        if (binder != null && !"reflection".equalsIgnoreCase(System.getProperty("page.binding", "generated"))) {
+            this.elements = ElementCache.isEnabled() ? new ElementCache(driver) : ElementCache.uncached(driver);
+            binder.bind(this, elements);
+        } else if (ElementCache.isEnabled()) {
+            this.elements = new ElementCache(driver);
+            elements.initElements(this);
+            indexDescriptions();
+        } else {
+            PageFactory.initElements(driver, this);
+            indexDescriptions();
+        }
+    }
+
+    /**
+     * Record a description for each element PageFactory assigned. Generated
+     * binders need none: their elements describe themselves.
+     */
+    private void indexDescriptions() {
+        for (Field field : elementFields.computeIfAbsent(getClass(), BasePage::findElementFields)) {
+            try {
+                Object element = field.get(this);
+                if (element instanceof WebElement) {
+                    descriptions.put((WebElement) element, field.getDeclaringClass().getSimpleName()
+                            + "." + field.getName() + " (" + new Annotations(field).buildBy() + ")");
+                }
+            } catch (IllegalAccessException | RuntimeException e) {
+                // Not readable; logged as unnamed
+            }
+        }
+    }
+
+    private static List<Field> findElementFields(Class<?> pageClass) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> type = pageClass; type != BasePage.class && type != null; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (WebElement.class.isAssignableFrom(field.getType())) {
+                    try {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    } catch (RuntimeException e) {
+                        // Inaccessible (module rules); logged as unnamed
+                    }
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * What "ready" means for this page. Override to wait for key elements,
+     * requests or a quiet DOM instead of the full page load.
+     */
+    protected PageReadiness readiness() {
+        return PageReadiness.domContentLoaded();
+    }
+
+    /**
+     * Navigate to a URL and return as soon as this page's readiness conditions hold.
+     */
+    protected void navigateTo(String url) {
+        NavigationTimings.settle(driver);
+        driver.get(url);
+        waitUntilReady();
+    }
+
+    /**
+     * Wait until this page's readiness conditions hold, e.g. after a click that
+     * navigates here, and record the time saved versus the full page load.
+     */
+    public void waitUntilReady() {
+        PageReadiness readiness = readiness();
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        String[] lastPending = {null};
+        Map<String, Object> probe;
+        try {
+            probe = waits.budget("pageReady", Duration.ofSeconds(READY_TIMEOUT_SECONDS)).until(d -> {
+                Map<String, Object> result = readiness.probe(js);
+                if (Boolean.TRUE.equals(result.get("ready"))) {
+                    return result;
+                }
+                lastPending[0] = String.valueOf(result.get("pending"));
+                return null;
+            });
+        } catch (TimeoutException e) {
+            throw new TimeoutException(getClass().getSimpleName() + " not ready: " + lastPending[0], e);
+        }
+        NavigationTimings.recordReady(driver, getClass().getSimpleName(),
+                CloudConfig.getPageLoadStrategy().toString(), probe);
     }
 
     protected void click(WebElement element) {
+        WaitEngine.Budget budget = waits.budget("click");
         try {
-            waitForElementToBeClickable(element);
-            logger.info("Clicking on element: " + element.toString());
+            budget.clickable(element);
+            logger.info("Clicking on element: " + describe(element));
             element.click();
         } catch (StaleElementReferenceException e) {
             logger.warn("Stale element encountered on click, retrying...");
-            // Refresh PageFactory elements
-            PageFactory.initElements(driver, this);
-            waitForElementToBeClickable(element);
+            // The field proxy re-locates just this element; the retry shares the action's remaining budget
+            budget.clickable(element);
             element.click();
         } catch (Exception e) {
             logger.error("Failed to click element after retries", e);
@@ -43,17 +194,34 @@ public class BasePage {
         }
     }
 
+    /**
+     * Describe an element for logging by the page field that declares it and its
+     * locator. Never calls the element: toString() on a PageFactory proxy locates
+     * the element first, costing a round trip per log line.
+     */
+    protected String describe(WebElement element) {
+        String description = descriptions.get(element);
+        if (description != null) {
+            return description;
+        }
+        String generated = ElementCache.describe(element);
+        if (generated != null) {
+            return getClass().getSimpleName() + "." + generated;
+        }
+        return "unnamed element on " + getClass().getSimpleName();
+    }
+
     protected void sendKeys(WebElement element, String text) {
+        WaitEngine.Budget budget = waits.budget("sendKeys");
         try {
-            waitForElementToBeVisible(element);
+            budget.visible(element);
             element.clear();
-            logger.info("Entering text: " + text);
+            logger.info("Entering text into " + describe(element) + ": " + text);
             element.sendKeys(text);
         } catch (StaleElementReferenceException e) {
             logger.warn("Stale element encountered on sendKeys, retrying...");
-            // Refresh PageFactory elements
-            PageFactory.initElements(driver, this);
-            waitForElementToBeVisible(element);
+            // The field proxy re-locates just this element; the retry shares the action's remaining budget
+            budget.visible(element);
             element.clear();
             element.sendKeys(text);
         } catch (Exception e) {
@@ -62,21 +230,98 @@ public class BasePage {
         }
     }
 
+    /**
+     * Run a batch of form steps in as few round trips as possible: consecutive
+     * steps run in one script call, and only steps that request native input or
+     * that the script cannot perform (missing, hidden, disabled) are replayed with
+     * WebDriver input, waiting as usual. A CLICK that navigates should be the last step.
+     */
+    @SuppressWarnings("unchecked")
+    protected List<FormStep.Result> fillForm(List<FormStep> steps) {
+        List<Map<String, Object>> scriptSteps = new ArrayList<>();
+        for (FormStep step : steps) {
+            Map<String, Object> arg = step.toScriptArg();
+            arg.put("native", step.isNativeInput());
+            scriptSteps.add(arg);
+        }
+
+        List<FormStep.Result> results = new ArrayList<>();
+        int scriptCalls = 0;
+        int next = 0;
+        while (next < steps.size()) {
+            int done = next;
+            String reason = "native input requested";
+            if (!steps.get(next).isNativeInput()) {
+                Map<String, Object> outcome = (Map<String, Object>) ((JavascriptExecutor) driver)
+                        .executeScript(FORM_SCRIPT, scriptSteps, next);
+                scriptCalls++;
+                done = ((Number) outcome.get("done")).intValue();
+                reason = (String) outcome.get("stop");
+            }
+            for (int i = next; i < done; i++) {
+                results.add(new FormStep.Result(steps.get(i), "script", null));
+            }
+            if (done >= steps.size()) {
+                break;
+            }
+            FormStep step = steps.get(done);
+            logger.info("Form step '" + step + "' falling back to native input: " + reason);
+            performNatively(step);
+            results.add(new FormStep.Result(step, "native", reason));
+            next = done + 1;
+        }
+        logger.info("Filled form: " + steps.size() + " steps in " + scriptCalls + " script call(s)");
+        return results;
+    }
+
+    private void performNatively(FormStep step) {
+        WaitEngine.Budget budget = waits.budget("formStep");
+        By locator = By.cssSelector(step.getCssSelector());
+        WebElement element = budget.until(d -> d.findElement(locator));
+        switch (step.getAction()) {
+            case TYPE:
+                budget.visible(element);
+                element.clear();
+                element.sendKeys(step.getValue());
+                break;
+            case CLICK:
+                budget.clickable(element).click();
+                break;
+            case SELECT:
+                budget.visible(element);
+                Select select = new Select(element);
+                try {
+                    select.selectByVisibleText(step.getValue());
+                } catch (NoSuchElementException e) {
+                    select.selectByValue(step.getValue());
+                }
+                break;
+            case CHECK:
+                budget.clickable(element);
+                if (element.isSelected() != Boolean.parseBoolean(step.getValue())) {
+                    element.click();
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported form action: " + step.getAction());
+        }
+    }
+
     protected String getText(WebElement element) {
+        WaitEngine.Budget budget = waits.budget("getText");
         try {
-            waitForElementToBeVisible(element);
+            budget.visible(element);
             return element.getText();
         } catch (StaleElementReferenceException e) {
             logger.warn("Stale element encountered on getText, retrying...");
-            PageFactory.initElements(driver, this);
-            waitForElementToBeVisible(element);
+            budget.visible(element);
             return element.getText();
         }
     }
 
     protected boolean isElementDisplayed(WebElement element) {
         try {
-            waitForElementToBeVisible(element);
+            waits.budget("isDisplayed").visible(element);
             return element.isDisplayed();
         } catch (StaleElementReferenceException e) {
             logger.warn("Stale element on isDisplayed, returning false");
@@ -87,12 +332,56 @@ public class BasePage {
         }
     }
 
+    /**
+     * True if the element is missing or hidden. Returns as soon as the page is stable
+     * instead of waiting out the full timeout like {@link #isElementDisplayed}.
+     */
+    protected boolean isElementNotDisplayed(WebElement element) {
+        return confirmAbsence(element, true);
+    }
+
+    /**
+     * True if the element is not in the DOM at all, checked once the page is stable.
+     */
+    protected boolean isElementAbsent(WebElement element) {
+        return confirmAbsence(element, false);
+    }
+
+    private boolean confirmAbsence(WebElement element, boolean hiddenCountsAsAbsent) {
+        String action = hiddenCountsAsAbsent ? "notDisplayed" : "absent";
+        long start = System.nanoTime();
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        try {
+            waits.budget(action, WaitEngine.absenceGrace())
+                    .until(d -> Boolean.TRUE.equals(STABLE_PAGE.probe(js).get("ready")));
+        } catch (TimeoutException e) {
+            logger.debug("Page still changing after " + WaitEngine.absenceGrace().toMillis()
+                    + "ms grace period, checking element anyway");
+        }
+
+        boolean absent;
+        try {
+            // Always touch the element: resolving it is what tells us whether it is in the DOM
+            boolean displayed = element.isDisplayed();
+            absent = hiddenCountsAsAbsent && !displayed;
+        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            absent = true;
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (absent) {
+            WaitEngine.recordAbsenceCheck(waits.getTimeout().toMillis() - elapsed);
+        }
+        logger.debug("Absence check ({}) resolved {} in {}ms", action, absent, elapsed);
+        return absent;
+    }
+
     protected void waitForElementToBeVisible(WebElement element) {
-        wait.until(ExpectedConditions.visibilityOf(element));
+        waits.budget("visible").visible(element);
     }
 
     protected void waitForElementToBeClickable(WebElement element) {
-        wait.until(ExpectedConditions.elementToBeClickable(element));
+        waits.budget("clickable").clickable(element);
     }
 
     public String getPageTitle() {
@@ -103,4 +392,3 @@ public class BasePage {
         return driver.getCurrentUrl();
     }
 }
-
@@ -0,0 +1,380 @@
+package com.automation.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-page cache of resolved {@code @FindBy} elements. Each field proxy keeps
+ * the element it found; a StaleElementReferenceException drops only that entry
+ * and the call is retried once against a freshly located element, so repeated
+ * interactions with one element cost one command each and staleness never
+ * triggers a rescan of the whole page.
+ *
+ * Pages with generated locators (see PageLocatorProcessor) get plain
+ * {@link #element(String, By)} instances instead of reflective proxies.
+ * Disable with -Delement.cache=false to get plain PageFactory proxies, or for
+ * generated binders an {@link #uncached} resolver that locates on every call.
+ */
+public class ElementCache {
+
+    private static final AtomicLong totalHits = new AtomicLong();
+    private static final AtomicLong totalMisses = new AtomicLong();
+    private static final AtomicLong totalStale = new AtomicLong();
+
+    private final SearchContext context;
+    private final boolean caching;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+
+    public ElementCache(SearchContext context) {
+        this(context, true);
+    }
+
+    private ElementCache(SearchContext context, boolean caching) {
+        this.context = context;
+        this.caching = caching;
+    }
+
+    /**
+     * Resolver for generated binders that locates the element on every call,
+     * like a PageFactory proxy, for runs with -Delement.cache=false.
+     */
+    public static ElementCache uncached(SearchContext context) {
+        return new ElementCache(context, false);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("element.cache", "true"));
+    }
+
+    /**
+     * Populate the page's {@code @FindBy} fields with caching proxies.
+     */
+    public void initElements(Object page) {
+        PageFactory.initElements(new CachingFieldDecorator(new DefaultElementLocatorFactory(context)), page);
+    }
+
+    /**
+     * Lazily resolved, cached element for a known locator (re-located on every
+     * call if this resolver is {@link #uncached}). Used by generated page
+     * binders; no reflection or dynamic proxy involved.
+     */
+    public WebElement element(String name, By by) {
+        return new CachedElement(name, by);
+    }
+
+    /**
+     * "field (locator)" for an element created by {@link #element}, or null for
+     * any other element. Never touches the browser.
+     */
+    public static String describe(WebElement element) {
+        return element instanceof ElementCache.CachedElement ? element.toString() : null;
+    }
+
+    /**
+     * Drop the cached element behind a field proxy, e.g. after a script call
+     * reported it stale. No-op for elements that are not cache proxies.
+     */
+    public static boolean invalidate(WebElement element) {
+        if (element instanceof ElementCache.CachedElement) {
+            ((CachedElement) element).invalidate();
+            return true;
+        }
+        if (element != null && Proxy.isProxyClass(element.getClass())
+                && Proxy.getInvocationHandler(element) instanceof ElementCache.CachedElementHandler) {
+            ((CachedElementHandler) Proxy.getInvocationHandler(element)).invalidate();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Counters for this page.
+     */
+    public Map<String, String> getStats() {
+        return stats(hits, misses, stale);
+    }
+
+    /**
+     * Counters across all pages.
+     */
+    public static Map<String, String> getMetrics() {
+        return stats(totalHits, totalMisses, totalStale);
+    }
+
+    private static Map<String, String> stats(AtomicLong hits, AtomicLong misses, AtomicLong stale) {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        long lookups = hits.get() + misses.get();
+        metrics.put("hits", String.valueOf(hits.get()));
+        metrics.put("misses", String.valueOf(misses.get()));
+        metrics.put("stale", String.valueOf(stale.get()));
+        metrics.put("hitRate", String.format("%.2f", lookups == 0 ? 0.0 : (double) hits.get() / lookups));
+        return metrics;
+    }
+
+    private class CachingFieldDecorator extends DefaultFieldDecorator {
+
+        CachingFieldDecorator(DefaultElementLocatorFactory factory) {
+            super(factory);
+        }
+
+        @Override
+        protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+            return (WebElement) Proxy.newProxyInstance(loader,
+                    new Class<?>[] {WebElement.class, WrapsElement.class, Locatable.class},
+                    new CachedElementHandler(locator));
+        }
+    }
+
+    private class CachedElementHandler implements InvocationHandler {
+        private final ElementLocator locator;
+        private volatile WebElement element;
+
+        CachedElementHandler(ElementLocator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName())) {
+                return "Proxy element for: " + locator;
+            }
+            WebElement resolved = resolve();
+            if ("getWrappedElement".equals(method.getName())) {
+                return resolved;
+            }
+            try {
+                return method.invoke(resolved, args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                    throw e.getCause();
+                }
+            }
+            // Only this entry went stale: locate it again and retry once
+            invalidate();
+            try {
+                return method.invoke(resolve(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private WebElement resolve() {
+            WebElement cached = element;
+            if (cached != null) {
+                hits.incrementAndGet();
+                totalHits.incrementAndGet();
+                return cached;
+            }
+            misses.incrementAndGet();
+            totalMisses.incrementAndGet();
+            cached = locator.findElement();
+            element = cached;
+            return cached;
+        }
+
+        private void invalidate() {
+            if (element != null) {
+                element = null;
+                stale.incrementAndGet();
+                totalStale.incrementAndGet();
+            }
+        }
+    }
+
+    private class CachedElement implements WebElement, WrapsElement, Locatable {
+        private final String name;
+        private final By by;
+        private volatile WebElement element;
+
+        CachedElement(String name, By by) {
+            this.name = name;
+            this.by = by;
+        }
+
+        private WebElement resolve() {
+            if (!caching) {
+                return context.findElement(by);
+            }
+            WebElement cached = element;
+            if (cached != null) {
+                hits.incrementAndGet();
+                totalHits.incrementAndGet();
+                return cached;
+            }
+            misses.incrementAndGet();
+            totalMisses.incrementAndGet();
+            cached = context.findElement(by);
+            element = cached;
+            return cached;
+        }
+
+        private void invalidate() {
+            if (element != null) {
+                element = null;
+                stale.incrementAndGet();
+                totalStale.incrementAndGet();
+            }
+        }
+
+        private <T> T call(Function<WebElement, T> action) {
+            try {
+                return action.apply(resolve());
+            } catch (StaleElementReferenceException e) {
+                // Only this entry went stale: locate it again and retry once
+                invalidate();
+                return action.apply(resolve());
+            }
+        }
+
+        @Override
+        public void click() {
+            call(e -> { e.click(); return null; });
+        }
+
+        @Override
+        public void submit() {
+            call(e -> { e.submit(); return null; });
+        }
+
+        @Override
+        public void sendKeys(CharSequence... keysToSend) {
+            call(e -> { e.sendKeys(keysToSend); return null; });
+        }
+
+        @Override
+        public void clear() {
+            call(e -> { e.clear(); return null; });
+        }
+
+        @Override
+        public String getTagName() {
+            return call(WebElement::getTagName);
+        }
+
+        @Override
+        public String getDomProperty(String property) {
+            return call(e -> e.getDomProperty(property));
+        }
+
+        @Override
+        public String getDomAttribute(String attribute) {
+            return call(e -> e.getDomAttribute(attribute));
+        }
+
+        @Override
+        public String getAttribute(String attribute) {
+            return call(e -> e.getAttribute(attribute));
+        }
+
+        @Override
+        public String getAriaRole() {
+            return call(WebElement::getAriaRole);
+        }
+
+        @Override
+        public String getAccessibleName() {
+            return call(WebElement::getAccessibleName);
+        }
+
+        @Override
+        public boolean isSelected() {
+            return call(WebElement::isSelected);
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return call(WebElement::isEnabled);
+        }
+
+        @Override
+        public String getText() {
+            return call(WebElement::getText);
+        }
+
+        @Override
+        public List<WebElement> findElements(By locator) {
+            return call(e -> e.findElements(locator));
+        }
+
+        @Override
+        public WebElement findElement(By locator) {
+            return call(e -> e.findElement(locator));
+        }
+
+        @Override
+        public SearchContext getShadowRoot() {
+            return call(WebElement::getShadowRoot);
+        }
+
+        @Override
+        public boolean isDisplayed() {
+            return call(WebElement::isDisplayed);
+        }
+
+        @Override
+        public Point getLocation() {
+            return call(WebElement::getLocation);
+        }
+
+        @Override
+        public Dimension getSize() {
+            return call(WebElement::getSize);
+        }
+
+        @Override
+        public Rectangle getRect() {
+            return call(WebElement::getRect);
+        }
+
+        @Override
+        public String getCssValue(String propertyName) {
+            return call(e -> e.getCssValue(propertyName));
+        }
+
+        @Override
+        public <X> X getScreenshotAs(OutputType<X> target) {
+            return call(e -> e.getScreenshotAs(target));
+        }
+
+        @Override
+        public Coordinates getCoordinates() {
+            return call(e -> ((Locatable) e).getCoordinates());
+        }
+
+        @Override
+        public WebElement getWrappedElement() {
+            return resolve();
+        }
+
+        @Override
+        public String toString() {
+            // Describes the declaration only; never touches the browser
+            return name + " (" + by + ")";
+        }
+    }
+}
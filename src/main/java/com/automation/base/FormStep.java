@@ -0,0 +1,108 @@
+package com.automation.base;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One step of a batched form interaction: a CSS locator, an action and an
+ * optional value. Steps run in the page in a single script call; steps marked
+ * {@link #nativeInput()} (or that the script cannot perform) are replayed with
+ * real WebDriver input events.
+ */
+public class FormStep {
+
+    public enum Action { TYPE, CLICK, SELECT, CHECK }
+
+    private final String cssSelector;
+    private final Action action;
+    private final String value;
+    private boolean nativeInput;
+
+    private FormStep(String cssSelector, Action action, String value) {
+        this.cssSelector = cssSelector;
+        this.action = action;
+        this.value = value;
+    }
+
+    /**
+     * Replace the field's value (clear + type).
+     */
+    public static FormStep type(String cssSelector, String value) {
+        return new FormStep(cssSelector, Action.TYPE, value);
+    }
+
+    public static FormStep click(String cssSelector) {
+        return new FormStep(cssSelector, Action.CLICK, null);
+    }
+
+    /**
+     * Select the option whose visible text or value matches.
+     */
+    public static FormStep select(String cssSelector, String option) {
+        return new FormStep(cssSelector, Action.SELECT, option);
+    }
+
+    public static FormStep check(String cssSelector, boolean checked) {
+        return new FormStep(cssSelector, Action.CHECK, String.valueOf(checked));
+    }
+
+    /**
+     * Perform this step with real key/mouse events instead of in-page script,
+     * for fields whose handlers depend on them.
+     */
+    public FormStep nativeInput() {
+        this.nativeInput = true;
+        return this;
+    }
+
+    public String getCssSelector() { return cssSelector; }
+    public Action getAction() { return action; }
+    public String getValue() { return value; }
+    public boolean isNativeInput() { return nativeInput; }
+
+    Map<String, Object> toScriptArg() {
+        Map<String, Object> arg = new LinkedHashMap<>();
+        arg.put("css", cssSelector);
+        arg.put("action", action.name());
+        arg.put("value", value);
+        return arg;
+    }
+
+    @Override
+    public String toString() {
+        // Never include typed values; they may be credentials
+        return action + " " + cssSelector;
+    }
+
+    /**
+     * Outcome of a single step.
+     */
+    public static class Result {
+        private final FormStep step;
+        private final String mode;
+        private final String detail;
+
+        Result(FormStep step, String mode, String detail) {
+            this.step = step;
+            this.mode = mode;
+            this.detail = detail;
+        }
+
+        public FormStep getStep() { return step; }
+
+        /**
+         * "script" when performed in the batched call, "native" when replayed with WebDriver input.
+         */
+        public String getMode() { return mode; }
+
+        /**
+         * Why the step fell back to native input, or null.
+         */
+        public String getDetail() { return detail; }
+
+        @Override
+        public String toString() {
+            return step + " [" + mode + (detail != null ? ": " + detail : "") + "]";
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.automation.base;
+
+/**
+ * Assigns a page's element fields without reflection. Implemented by the
+ * generated {@code <Page>Locators.bind} methods.
+ */
+@FunctionalInterface
+public interface PageBinder {
+
+    void bind(BasePage page, ElementCache cache);
+}
@@ -0,0 +1,130 @@
+package com.automation.base;
+
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What "ready" means for a page: key elements present, specific requests
+ * finished, the DOM quiet for a while. Evaluated in the browser with a single
+ * script call per poll, so it works with the eager and none page-load strategies.
+ */
+public class PageReadiness {
+
+    private static final String PROBE_SCRIPT =
+            "var sel = arguments[0], req = arguments[1], quietMs = arguments[2], url = arguments[3];"
+            + "var w = window;"
+            + "if (!w.__pageReadiness) {"
+            + "  w.__pageReadiness = { lastMutation: performance.now() };"
+            + "  try {"
+            + "    new MutationObserver(function () { w.__pageReadiness.lastMutation = performance.now(); })"
+            + "      .observe(document, { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "  } catch (e) {}"
+            + "}"
+            + "var nav = performance.getEntriesByType('navigation')[0];"
+            + "var r = { now: performance.now(), timeOrigin: performance.timeOrigin,"
+            + "  loadEventEnd: nav ? nav.loadEventEnd : 0, ready: false, pending: null };"
+            + "if (document.readyState === 'loading') { r.pending = 'document still loading'; return r; }"
+            + "if (url && location.href.indexOf(url) < 0) { r.pending = 'url does not contain ' + url; return r; }"
+            + "for (var i = 0; i < sel.length; i++) {"
+            + "  if (!document.querySelector(sel[i])) { r.pending = 'element ' + sel[i] + ' not present'; return r; }"
+            + "}"
+            + "var names = performance.getEntriesByType('resource').map(function (e) { return e.name; });"
+            + "for (var j = 0; j < req.length; j++) {"
+            + "  if (!names.some(function (n) { return n.indexOf(req[j]) >= 0; })) {"
+            + "    r.pending = 'request ' + req[j] + ' not finished'; return r;"
+            + "  }"
+            + "}"
+            + "var quietFor = performance.now() - w.__pageReadiness.lastMutation;"
+            + "if (quietMs > 0 && quietFor < quietMs) { r.pending = 'DOM changed ' + Math.round(quietFor) + 'ms ago'; return r; }"
+            + "r.ready = true;"
+            + "return r;";
+
+    private final List<String> elements;
+    private final List<String> requests;
+    private final long domQuietMillis;
+    private final String urlFragment;
+
+    private PageReadiness(Builder builder) {
+        this.elements = Collections.unmodifiableList(new ArrayList<>(builder.elements));
+        this.requests = Collections.unmodifiableList(new ArrayList<>(builder.requests));
+        this.domQuietMillis = builder.domQuietMillis;
+        this.urlFragment = builder.urlFragment;
+    }
+
+    /**
+     * Default readiness: the DOM has been parsed.
+     */
+    public static PageReadiness domContentLoaded() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Evaluate the conditions once in the browser. The returned map always contains
+     * "ready", plus navigation timing ("now", "timeOrigin", "loadEventEnd") and,
+     * when not ready, a "pending" description of the first unmet condition.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> probe(JavascriptExecutor js) {
+        return (Map<String, Object>) js.executeScript(PROBE_SCRIPT, elements, requests, domQuietMillis,
+                urlFragment != null ? urlFragment : "");
+    }
+
+    @Override
+    public String toString() {
+        return "PageReadiness{elements=" + elements + ", requests=" + requests
+                + ", domQuietMs=" + domQuietMillis + ", url=" + urlFragment + "}";
+    }
+
+    public static class Builder {
+        private final List<String> elements = new ArrayList<>();
+        private final List<String> requests = new ArrayList<>();
+        private long domQuietMillis;
+        private String urlFragment;
+
+        /**
+         * Elements (CSS selectors) that must be present in the DOM.
+         */
+        public Builder elementsPresent(String... cssSelectors) {
+            Collections.addAll(elements, cssSelectors);
+            return this;
+        }
+
+        /**
+         * A request whose URL contains the given fragment must have completed.
+         */
+        public Builder requestFinished(String urlFragment) {
+            requests.add(urlFragment);
+            return this;
+        }
+
+        /**
+         * No DOM mutations for the given duration.
+         */
+        public Builder domQuietFor(Duration quiet) {
+            this.domQuietMillis = quiet.toMillis();
+            return this;
+        }
+
+        /**
+         * The current URL must contain the given fragment (guards against probing
+         * the previous page after a click-triggered navigation).
+         */
+        public Builder urlContains(String fragment) {
+            this.urlFragment = fragment;
+            return this;
+        }
+
+        public PageReadiness build() {
+            return new PageReadiness(this);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.automation.base;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Single wait subsystem for page actions. Replaces the implicit wait plus
+ * WebDriverWait combination: each action gets one timeout budget, conditions
+ * are polled quickly at first and then with exponential backoff, and every
+ * wait is recorded (time waited, polls, outcome).
+ *
+ * Tuned with -Dwait.timeoutSeconds (10), -Dwait.poll.initialMs (25) and
+ * -Dwait.poll.maxMs (500).
+ *
+ * With -Dwait.mode=observer, element visibility/clickability waits run inside
+ * the page instead: a MutationObserver re-checks the element on the next
+ * animation frame after each DOM change and a single executeAsyncScript call
+ * resolves once it holds, so a wait costs one round trip instead of many.
+ *
+ * Absence checks use a separate, short grace period (-Dwait.absence.graceMs,
+ * default 1000) instead of the full action timeout.
+ */
+public class WaitEngine {
+
+    private static final Logger logger = LogManager.getLogger(WaitEngine.class);
+    private static final Map<String, ActionStats> stats = new ConcurrentHashMap<>();
+    private static final AtomicLong absenceChecks = new AtomicLong();
+    private static final AtomicLong absenceAvoidedMillis = new AtomicLong();
+    // Stay under the default 30s script timeout; longer waits are split into several calls
+    private static final long MAX_SCRIPT_WAIT_MILLIS = 25_000;
+
+    private static final String AWAIT_ELEMENT_SCRIPT =
+            "var el = arguments[0], clickable = arguments[1], timeoutMs = arguments[2];"
+            + "var done = arguments[arguments.length - 1];"
+            + "function state() {"
+            + "  if (!el.isConnected) return 'detached';"
+            + "  var shown = el.getClientRects().length > 0 && (!el.checkVisibility"
+            + "    || el.checkVisibility({ opacityProperty: true, visibilityProperty: true }));"
+            + "  return shown && !(clickable && el.disabled) ? 'ready' : null;"
+            + "}"
+            + "var initial = state();"
+            + "if (initial) { done(initial); return; }"
+            + "var finished = false, frame = 0;"
+            + "function finish(v) {"
+            + "  if (finished) return; finished = true;"
+            + "  observer.disconnect(); clearTimeout(timer); clearInterval(fallback); cancelAnimationFrame(frame);"
+            + "  done(v);"
+            + "}"
+            + "function check() { frame = 0; var s = state(); if (s) finish(s); }"
+            + "var observer = new MutationObserver(function () { if (!frame) frame = requestAnimationFrame(check); });"
+            + "observer.observe(document, { childList: true, subtree: true, attributes: true });"
+            // CSS transitions change visibility without DOM mutations
+            + "var fallback = setInterval(check, 100);"
+            + "var timer = setTimeout(function () { finish('timeout'); }, timeoutMs);";
+
+    private static final String AWAIT_MUTATION_SCRIPT =
+            "var timeoutMs = arguments[0], done = arguments[arguments.length - 1];"
+            + "var timer, observer = new MutationObserver(function () {"
+            + "  observer.disconnect(); clearTimeout(timer); requestAnimationFrame(function () { done(true); });"
+            + "});"
+            + "observer.observe(document, { childList: true, subtree: true });"
+            + "timer = setTimeout(function () { observer.disconnect(); done(false); }, timeoutMs);";
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final long initialPollMillis;
+    private final long maxPollMillis;
+    private final boolean observerMode;
+
+    public WaitEngine(WebDriver driver) {
+        this(driver, Duration.ofSeconds(Long.getLong("wait.timeoutSeconds", 10)));
+    }
+
+    public WaitEngine(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+        this.initialPollMillis = Math.max(1, Long.getLong("wait.poll.initialMs", 25));
+        this.maxPollMillis = Math.max(initialPollMillis, Long.getLong("wait.poll.maxMs", 500));
+        this.observerMode = "observer".equalsIgnoreCase(System.getProperty("wait.mode", "poll"))
+                && driver instanceof JavascriptExecutor;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Start a timeout budget for one action. All waits made through the returned
+     * budget (including retries) share the same deadline.
+     */
+    public Budget budget(String action) {
+        return new Budget(action, timeout);
+    }
+
+    /**
+     * Start a budget with its own timeout, e.g. a short grace period.
+     */
+    public Budget budget(String action, Duration actionTimeout) {
+        return new Budget(action, actionTimeout);
+    }
+
+    /**
+     * Grace period for absence checks: how long to wait for the page to settle
+     * before trusting that an element is not there.
+     */
+    public static Duration absenceGrace() {
+        return Duration.ofMillis(Long.getLong("wait.absence.graceMs", 1000));
+    }
+
+    /**
+     * Record a completed absence check and how much of the full timeout it avoided.
+     */
+    public static void recordAbsenceCheck(long avoidedMillis) {
+        absenceChecks.incrementAndGet();
+        absenceAvoidedMillis.addAndGet(Math.max(0, avoidedMillis));
+    }
+
+    /**
+     * Per-action wait totals across all threads.
+     */
+    public static Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        for (Map.Entry<String, ActionStats> entry : new TreeMap<>(stats).entrySet()) {
+            ActionStats s = entry.getValue();
+            String prefix = entry.getKey() + ".";
+            long waits = s.waits.get();
+            metrics.put(prefix + "waits", String.valueOf(waits));
+            metrics.put(prefix + "timeouts", String.valueOf(s.timeouts.get()));
+            metrics.put(prefix + "errors", String.valueOf(s.errors.get()));
+            metrics.put(prefix + "totalWaitMs", String.valueOf(s.totalWaitMillis.get()));
+            metrics.put(prefix + "avgPolls", String.format("%.1f", waits == 0 ? 0.0 : (double) s.totalPolls.get() / waits));
+        }
+        metrics.put("absence.checks", String.valueOf(absenceChecks.get()));
+        metrics.put("absence.avoidedMs", String.valueOf(absenceAvoidedMillis.get()));
+        return metrics;
+    }
+
+    /**
+     * Whether a script error means the document went away under it (navigation or reload)
+     * rather than a fault in the script itself.
+     */
+    private static boolean isNavigation(JavascriptException e) {
+        String message = String.valueOf(e.getMessage()).toLowerCase();
+        return message.contains("document unloaded")
+                || message.contains("execution context was destroyed")
+                || message.contains("cannot find context");
+    }
+
+    private static void record(String action, String outcome, long waitedMillis, int polls) {
+        ActionStats s = stats.computeIfAbsent(action, k -> new ActionStats());
+        s.waits.incrementAndGet();
+        s.totalPolls.addAndGet(polls);
+        s.totalWaitMillis.addAndGet(waitedMillis);
+        if ("TIMEOUT".equals(outcome)) {
+            s.timeouts.incrementAndGet();
+        } else if ("ERROR".equals(outcome)) {
+            s.errors.incrementAndGet();
+        }
+        logger.debug("wait action={} outcome={} waitedMs={} polls={}", action, outcome, waitedMillis, polls);
+    }
+
+    /**
+     * Deadline shared by every wait made for a single action.
+     */
+    public class Budget {
+        private final String action;
+        private final long deadlineNanos;
+
+        private Budget(String action, Duration actionTimeout) {
+            this.action = action;
+            this.deadlineNanos = System.nanoTime() + actionTimeout.toNanos();
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public long remainingMillis() {
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+        }
+
+        /**
+         * Poll the condition until it returns a non-null, non-false value or the
+         * budget runs out. Missing and stale elements count as "not yet".
+         *
+         * @throws TimeoutException if the budget is exhausted
+         */
+        public <T> T until(Function<? super WebDriver, T> condition) {
+            long start = System.nanoTime();
+            long interval = initialPollMillis;
+            int polls = 0;
+            RuntimeException lastIgnored = null;
+            while (true) {
+                polls++;
+                try {
+                    T value = condition.apply(driver);
+                    if (value != null && !Boolean.FALSE.equals(value)) {
+                        record(action, "SATISFIED", elapsedMillis(start), polls);
+                        return value;
+                    }
+                } catch (NotFoundException | StaleElementReferenceException e) {
+                    lastIgnored = e;
+                } catch (RuntimeException e) {
+                    record(action, "ERROR", elapsedMillis(start), polls);
+                    throw e;
+                }
+
+                long remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    long waited = elapsedMillis(start);
+                    record(action, "TIMEOUT", waited, polls);
+                    throw new TimeoutException(String.format("Timed out after %dms (%d polls) waiting for %s: %s",
+                            waited, polls, action, condition), lastIgnored);
+                }
+                sleep(Math.min(interval, TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+                interval = Math.min(maxPollMillis, interval * 2);
+            }
+        }
+
+        /**
+         * Wait until the element is displayed.
+         */
+        public WebElement visible(WebElement element) {
+            return observerMode ? awaitInBrowser(element, false) : until(ExpectedConditions.visibilityOf(element));
+        }
+
+        /**
+         * Wait until the element is displayed and enabled.
+         */
+        public WebElement clickable(WebElement element) {
+            return observerMode ? awaitInBrowser(element, true) : until(ExpectedConditions.elementToBeClickable(element));
+        }
+
+        private WebElement awaitInBrowser(WebElement element, boolean clickable) {
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            long start = System.nanoTime();
+            long interval = initialPollMillis;
+            int roundTrips = 0;
+            RuntimeException lastIgnored = null;
+            while (true) {
+                long remaining = Math.min(remainingMillis(), MAX_SCRIPT_WAIT_MILLIS);
+                if (remaining <= 0) {
+                    long waited = elapsedMillis(start);
+                    record(action, "TIMEOUT", waited, roundTrips);
+                    throw new TimeoutException(String.format("Timed out after %dms (%d round trips) waiting for %s to be %s",
+                            waited, roundTrips, action, clickable ? "clickable" : "visible"), lastIgnored);
+                }
+                roundTrips++;
+                try {
+                    // Passing the element resolves PageFactory proxies, which throws if it is not in the DOM yet
+                    Object state = js.executeAsyncScript(AWAIT_ELEMENT_SCRIPT, element, clickable, remaining);
+                    if ("ready".equals(state)) {
+                        record(action, "SATISFIED", elapsedMillis(start), roundTrips);
+                        return element;
+                    }
+                    if ("detached".equals(state)) {
+                        // Make the field proxy locate the element again on the next call; back off as
+                        // until() does, since the page may keep replacing it for a while
+                        ElementCache.invalidate(element);
+                        sleep(Math.min(interval, remainingMillis() + 1));
+                        interval = Math.min(maxPollMillis, interval * 2);
+                    }
+                } catch (NotFoundException e) {
+                    lastIgnored = e;
+                    // Not in the DOM yet: block in the page until it changes, then locate again
+                    roundTrips++;
+                    try {
+                        js.executeAsyncScript(AWAIT_MUTATION_SCRIPT, Math.min(remainingMillis(), MAX_SCRIPT_WAIT_MILLIS));
+                    } catch (ScriptTimeoutException timedOut) {
+                        // The budget check at the top of the loop reports the timeout
+                        lastIgnored = timedOut;
+                    } catch (JavascriptException unloaded) {
+                        if (!isNavigation(unloaded)) {
+                            record(action, "ERROR", elapsedMillis(start), roundTrips);
+                            throw unloaded;
+                        }
+                        // The page navigated, which is the change we were waiting for
+                        lastIgnored = unloaded;
+                    } catch (RuntimeException other) {
+                        record(action, "ERROR", elapsedMillis(start), roundTrips);
+                        throw other;
+                    }
+                } catch (StaleElementReferenceException e) {
+                    lastIgnored = e;
+                    ElementCache.invalidate(element);
+                } catch (JavascriptException e) {
+                    if (!isNavigation(e)) {
+                        record(action, "ERROR", elapsedMillis(start), roundTrips);
+                        throw e;
+                    }
+                    // The page navigated mid-wait: locate the element in the new document and re-arm
+                    lastIgnored = e;
+                    ElementCache.invalidate(element);
+                    sleep(Math.min(interval, remainingMillis() + 1));
+                    interval = Math.min(maxPollMillis, interval * 2);
+                } catch (RuntimeException e) {
+                    record(action, "ERROR", elapsedMillis(start), roundTrips);
+                    throw e;
+                }
+            }
+        }
+
+        private long elapsedMillis(long startNanos) {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+
+        private void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for " + action, e);
+            }
+        }
+    }
+
+    private static final class ActionStats {
+        private final AtomicLong waits = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong totalPolls = new AtomicLong();
+        private final AtomicLong totalWaitMillis = new AtomicLong();
+    }
+}
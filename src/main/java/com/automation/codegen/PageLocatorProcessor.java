@@ -0,0 +1,206 @@
+package com.automation.codegen;
+
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.How;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Page>Locators} class for every BasePage subclass with
+ * {@code @FindBy} fields: one {@code By} constant per field and a
+ * {@code bind(BasePage, ElementCache)} method that assigns cached elements to
+ * the fields directly, so page construction needs no reflection or proxies.
+ *
+ * Fields must be non-private WebElements so the generated code (in the same
+ * package) can assign them.
+ */
+@SupportedAnnotationTypes("org.openqa.selenium.support.FindBy")
+public class PageLocatorProcessor extends AbstractProcessor {
+
+    private static final String BASE_PAGE = "com.automation.base.BasePage";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement basePage = processingEnv.getElementUtils().getTypeElement(BASE_PAGE);
+        TypeElement webElement = processingEnv.getElementUtils().getTypeElement("org.openqa.selenium.WebElement");
+        if (basePage == null || webElement == null) {
+            return false;
+        }
+
+        Map<TypeElement, List<VariableElement>> pages = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(FindBy.class)) {
+            if (element.getKind() != ElementKind.FIELD) {
+                continue;
+            }
+            TypeElement owner = (TypeElement) element.getEnclosingElement();
+            if (!processingEnv.getTypeUtils().isSubtype(owner.asType(), basePage.asType())) {
+                continue;
+            }
+            pages.computeIfAbsent(owner, k -> new ArrayList<>()).add((VariableElement) element);
+        }
+
+        for (Map.Entry<TypeElement, List<VariableElement>> page : pages.entrySet()) {
+            if (validate(page.getValue(), webElement.asType())) {
+                generate(page.getKey(), page.getValue());
+            }
+        }
+        return false;
+    }
+
+    private boolean validate(List<VariableElement> fields, TypeMirror webElement) {
+        boolean valid = true;
+        for (VariableElement field : fields) {
+            if (!processingEnv.getTypeUtils().isSameType(field.asType(), webElement)) {
+                error(field, "Generated locators only support WebElement fields");
+                valid = false;
+            } else if (field.getModifiers().contains(Modifier.PRIVATE) || field.getModifiers().contains(Modifier.STATIC)
+                    || field.getModifiers().contains(Modifier.FINAL)) {
+                error(field, "@FindBy fields of pages must be non-private, non-static and non-final "
+                        + "so the generated binder can assign them");
+                valid = false;
+            } else if (byExpression(field.getAnnotation(FindBy.class)) == null) {
+                error(field, "@FindBy must specify exactly one locator");
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private void generate(TypeElement page, List<VariableElement> fields) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(page);
+        String packageName = pkg.getQualifiedName().toString();
+        String pageName = page.getSimpleName().toString();
+        String className = pageName + "Locators";
+
+        try {
+            JavaFileObject file = processingEnv.getFiler()
+                    .createSourceFile(packageName.isEmpty() ? className : packageName + "." + className, page);
+            try (PrintWriter out = new PrintWriter(file.openWriter())) {
+                if (!packageName.isEmpty()) {
+                    out.println("package " + packageName + ";");
+                    out.println();
+                }
+                out.println("import com.automation.base.BasePage;");
+                out.println("import com.automation.base.ElementCache;");
+                out.println("import org.openqa.selenium.By;");
+                out.println();
+                out.println("/**");
+                out.println(" * Locators for {@link " + pageName + "}, generated from its @FindBy fields.");
+                out.println(" */");
+                out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+                out.println("public final class " + className + " {");
+                out.println();
+                for (VariableElement field : fields) {
+                    out.println("    public static final By " + constantName(field) + " = "
+                            + byExpression(field.getAnnotation(FindBy.class)) + ";");
+                }
+                out.println();
+                out.println("    private " + className + "() {");
+                out.println("    }");
+                out.println();
+                out.println("    /**");
+                out.println("     * Assign lazily resolved, cached elements to the page's fields.");
+                out.println("     */");
+                out.println("    public static void bind(BasePage page, ElementCache cache) {");
+                out.println("        " + pageName + " target = (" + pageName + ") page;");
+                for (VariableElement field : fields) {
+                    String name = field.getSimpleName().toString();
+                    out.println("        target." + name + " = cache.element(\"" + name + "\", " + constantName(field) + ");");
+                }
+                out.println("    }");
+                out.println("}");
+            }
+        } catch (IOException e) {
+            error(page, "Could not generate " + className + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Java source for the By equivalent to the annotation, or null if it does not
+     * name exactly one locator.
+     */
+    static String byExpression(FindBy findBy) {
+        List<String> locators = new ArrayList<>();
+        add(locators, "By.id", findBy.id());
+        add(locators, "By.name", findBy.name());
+        add(locators, "By.className", findBy.className());
+        add(locators, "By.cssSelector", findBy.css());
+        add(locators, "By.tagName", findBy.tagName());
+        add(locators, "By.linkText", findBy.linkText());
+        add(locators, "By.partialLinkText", findBy.partialLinkText());
+        add(locators, "By.xpath", findBy.xpath());
+        if (findBy.how() != How.UNSET && !findBy.using().isEmpty()) {
+            locators.add(fromHow(findBy.how(), findBy.using()));
+        }
+        return locators.size() == 1 ? locators.get(0) : null;
+    }
+
+    private static String fromHow(How how, String using) {
+        switch (how) {
+            case CLASS_NAME: return "By.className(" + literal(using) + ")";
+            case CSS: return "By.cssSelector(" + literal(using) + ")";
+            case ID: return "By.id(" + literal(using) + ")";
+            case ID_OR_NAME: return "new org.openqa.selenium.support.pagefactory.ByIdOrName(" + literal(using) + ")";
+            case LINK_TEXT: return "By.linkText(" + literal(using) + ")";
+            case NAME: return "By.name(" + literal(using) + ")";
+            case PARTIAL_LINK_TEXT: return "By.partialLinkText(" + literal(using) + ")";
+            case TAG_NAME: return "By.tagName(" + literal(using) + ")";
+            case XPATH: return "By.xpath(" + literal(using) + ")";
+            default: return null;
+        }
+    }
+
+    private static void add(List<String> locators, String factory, String value) {
+        if (!value.isEmpty()) {
+            locators.add(factory + "(" + literal(value) + ")");
+        }
+    }
+
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String constantName(VariableElement field) {
+        return field.getSimpleName().toString().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -1,11 +1,19 @@
 package com.automation.config;
 
+import com.automation.driver.RemoteHttpClientFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.HttpCommandExecutor;
 import org.openqa.selenium.remote.RemoteWebDriver;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,6 +23,8 @@ import java.util.Map;
  */
 public class CloudConfig {
 
+    private static final Logger logger = LogManager.getLogger(CloudConfig.class);
+
     // Environment variable names
     private static final String BROWSERSTACK_USERNAME = "BROWSERSTACK_USERNAME";
     private static final String BROWSERSTACK_ACCESS_KEY = "BROWSERSTACK_ACCESS_KEY";
@@ -46,6 +56,15 @@ public class CloudConfig {
         }
     }
 
+    /**
+     * Get page load strategy (normal, eager or none) from -Dpage.load.strategy or default to normal.
+     * With eager/none, page objects decide when a page is usable via their readiness conditions.
+     */
+    public static PageLoadStrategy getPageLoadStrategy() {
+        PageLoadStrategy strategy = PageLoadStrategy.fromString(System.getProperty("page.load.strategy", "normal").toLowerCase());
+        return strategy != null ? strategy : PageLoadStrategy.NORMAL;
+    }
+
     /**
      * Create BrowserStack WebDriver
      */
@@ -77,9 +96,11 @@ public class CloudConfig {
 
         capabilities.setCapability("browserName", browser);
         capabilities.setCapability("bstack:options", browserstackOptions);
+        capabilities.setCapability(CapabilityType.PAGE_LOAD_STRATEGY, getPageLoadStrategy().toString());
 
         String hubUrl = String.format(BROWSERSTACK_HUB_URL, username, accessKey);
-        return new RemoteWebDriver(new URL(hubUrl), capabilities);
+        return createRemoteDriver(new URL(hubUrl), capabilities,
+                SessionAdmissionController.getInstance().admit(ExecutionEnv.BROWSERSTACK.name()));
     }
 
     /**
@@ -114,9 +135,109 @@ public class CloudConfig {
 
         capabilities.setCapability("browserName", browser);
         capabilities.setCapability("LT:Options", ltOptions);
+        capabilities.setCapability(CapabilityType.PAGE_LOAD_STRATEGY, getPageLoadStrategy().toString());
 
         String hubUrl = String.format(LAMBDATEST_HUB_URL, username, accessKey);
-        return new RemoteWebDriver(new URL(hubUrl), capabilities);
+        return createRemoteDriver(new URL(hubUrl), capabilities,
+                SessionAdmissionController.getInstance().admit(ExecutionEnv.LAMBDATEST.name()));
+    }
+
+    /**
+     * Start a remote session on a hub. Sessions share one tuned HTTP client per
+     * hub (see {@link RemoteHttpClientFactory}) unless -Dremote.http.shared=false.
+     */
+    public static RemoteWebDriver createRemoteDriver(URL hub, Capabilities capabilities) {
+        return createRemoteDriver(hub, capabilities, null);
+    }
+
+    /**
+     * Start a remote session holding an admission permit, which is released when
+     * the session quits or if it cannot be created.
+     */
+    public static RemoteWebDriver createRemoteDriver(URL hub, Capabilities capabilities,
+                                                     SessionAdmissionController.Permit permit) {
+        HttpCommandExecutor executor;
+        if (RemoteHttpClientFactory.isEnabled()) {
+            RemoteHttpClientFactory factory = RemoteHttpClientFactory.getInstance();
+            executor = new HttpCommandExecutor(Collections.emptyMap(), factory.clientConfig(hub), factory);
+        } else {
+            executor = new HttpCommandExecutor(hub);
+        }
+        if (permit == null) {
+            return new RemoteWebDriver(executor, capabilities);
+        }
+        try {
+            return new AdmittedRemoteWebDriver(executor, capabilities, permit);
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Remote session that gives its admission slot back on quit.
+     */
+    private static class AdmittedRemoteWebDriver extends RemoteWebDriver {
+
+        private final SessionAdmissionController.Permit permit;
+
+        AdmittedRemoteWebDriver(HttpCommandExecutor executor, Capabilities capabilities,
+                                SessionAdmissionController.Permit permit) {
+            super(executor, capabilities);
+            this.permit = permit;
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Open keep-alive connections to the current cloud hub ahead of the first
+     * sessions. Does nothing for LOCAL runs, without credentials, or when the
+     * shared client is disabled.
+     */
+    public static void preconnect(int connections) {
+        URL hub = getHubUrl(getExecutionEnv());
+        if (hub == null || connections <= 0 || !RemoteHttpClientFactory.isEnabled()) {
+            return;
+        }
+        RemoteHttpClientFactory.getInstance().preconnect(hub, connections);
+    }
+
+    /**
+     * Hub URL (with credentials) for a cloud environment, or null for LOCAL or
+     * when credentials are missing.
+     */
+    private static URL getHubUrl(ExecutionEnv env) {
+        String template;
+        String username;
+        String accessKey;
+        if (env == ExecutionEnv.BROWSERSTACK) {
+            template = BROWSERSTACK_HUB_URL;
+            username = getEnvOrProperty(BROWSERSTACK_USERNAME, "browserstack.username");
+            accessKey = getEnvOrProperty(BROWSERSTACK_ACCESS_KEY, "browserstack.accessKey");
+        } else if (env == ExecutionEnv.LAMBDATEST) {
+            template = LAMBDATEST_HUB_URL;
+            username = getEnvOrProperty(LAMBDATEST_USERNAME, "lambdatest.username");
+            accessKey = getEnvOrProperty(LAMBDATEST_ACCESS_KEY, "lambdatest.accessKey");
+        } else {
+            return null;
+        }
+        if (username == null || accessKey == null) {
+            return null;
+        }
+        try {
+            return new URL(String.format(template, username, accessKey));
+        } catch (MalformedURLException e) {
+            logger.warn("Invalid {} hub URL: {}", env, e.getMessage());
+            return null;
+        }
     }
 
     /**
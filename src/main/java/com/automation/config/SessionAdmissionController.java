@@ -0,0 +1,164 @@
+package com.automation.config;
+
+import com.automation.analytics.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.SessionNotCreatedException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the number of live cloud sessions per provider within the plan's
+ * parallel limit. Tests beyond the quota wait in a fair (FIFO) queue in the
+ * JVM and start as soon as another test quits, instead of being rejected or
+ * parked in the provider's own queue until setUp times out.
+ *
+ * Quotas come from -Dbrowserstack.maxSessions and -Dlambdatest.maxSessions
+ * (0, the default, means no limit). A test that waits longer than
+ * -Dcloud.admission.timeoutSeconds (900) fails with SessionNotCreatedException.
+ */
+public class SessionAdmissionController {
+
+    private static final Logger logger = LogManager.getLogger(SessionAdmissionController.class);
+
+    private static SessionAdmissionController instance;
+
+    private final Map<String, Provider> providers = new ConcurrentHashMap<>();
+    private final Map<String, Integer> quotas;
+    private final long timeoutMillis;
+
+    /**
+     * @param quotas        maximum concurrent sessions by provider name; missing or 0 means no limit
+     * @param timeoutMillis how long a test may wait for a slot
+     */
+    public SessionAdmissionController(Map<String, Integer> quotas, long timeoutMillis) {
+        this.quotas = new ConcurrentHashMap<>(quotas);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public static synchronized SessionAdmissionController getInstance() {
+        if (instance == null) {
+            Map<String, Integer> quotas = new LinkedHashMap<>();
+            quotas.put(CloudConfig.ExecutionEnv.BROWSERSTACK.name(), Integer.getInteger("browserstack.maxSessions", 0));
+            quotas.put(CloudConfig.ExecutionEnv.LAMBDATEST.name(), Integer.getInteger("lambdatest.maxSessions", 0));
+            instance = new SessionAdmissionController(quotas,
+                    TimeUnit.SECONDS.toMillis(Long.getLong("cloud.admission.timeoutSeconds", 900)));
+        }
+        return instance;
+    }
+
+    /**
+     * Wait (fairly) for a session slot on the provider. The returned permit must
+     * be released when the session ends; releasing twice is harmless.
+     */
+    public Permit admit(String provider) {
+        Provider p = providers.computeIfAbsent(provider, name -> new Provider(quotas.getOrDefault(name, 0)));
+        if (p.slots == null) {
+            p.admitted.incrementAndGet();
+            return new Permit(null);
+        }
+
+        long start = System.nanoTime();
+        // The timed form honours fairness; plain tryAcquire() would barge past queued tests
+        if (!tryAcquireNow(p.slots)) {
+            int depth = p.queued.incrementAndGet();
+            p.maxQueued.accumulateAndGet(depth, Math::max);
+            logger.info("Waiting for a {} session slot ({} in use, {} queued)",
+                    provider, p.quota - p.slots.availablePermits(), depth);
+            try {
+                if (!p.slots.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    p.timeouts.incrementAndGet();
+                    throw new SessionNotCreatedException(String.format(
+                            "No %s session slot within %ds (quota %d, %d queued)",
+                            provider, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis), p.quota, p.queued.get()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SessionNotCreatedException("Interrupted while waiting for a " + provider + " session slot");
+            } finally {
+                p.queued.decrementAndGet();
+            }
+        }
+        p.waits.recordNanos(System.nanoTime() - start);
+        p.admitted.incrementAndGet();
+        return new Permit(p.slots);
+    }
+
+    /**
+     * Quota, admissions, current and peak queue depth and admission wait per provider.
+     */
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        for (Map.Entry<String, Provider> entry : new TreeMap<>(providers).entrySet()) {
+            Provider p = entry.getValue();
+            String prefix = entry.getKey().toLowerCase() + ".";
+            metrics.put(prefix + "quota", String.valueOf(p.quota));
+            metrics.put(prefix + "admitted", String.valueOf(p.admitted.get()));
+            metrics.put(prefix + "active", String.valueOf(p.slots == null ? 0 : p.quota - p.slots.availablePermits()));
+            metrics.put(prefix + "queued", String.valueOf(p.queued.get()));
+            metrics.put(prefix + "maxQueued", String.valueOf(p.maxQueued.get()));
+            metrics.put(prefix + "waitP50Ms", millis(p.waits.percentileMicros(0.50)));
+            metrics.put(prefix + "waitP95Ms", millis(p.waits.percentileMicros(0.95)));
+            metrics.put(prefix + "waitMaxMs", millis(p.waits.getMaxMicros()));
+            metrics.put(prefix + "timeouts", String.valueOf(p.timeouts.get()));
+        }
+        return metrics;
+    }
+
+    private static boolean tryAcquireNow(Semaphore slots) {
+        try {
+            return slots.tryAcquire(0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while waiting for a session slot");
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+
+    /**
+     * A held session slot.
+     */
+    public static final class Permit {
+
+        private final Semaphore slots;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore slots) {
+            this.slots = slots;
+        }
+
+        public void release() {
+            if (slots != null && released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+
+    private static final class Provider {
+
+        final int quota;
+        // Fair, so waiting tests are admitted in arrival order; null when unlimited
+        final Semaphore slots;
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicInteger maxQueued = new AtomicInteger();
+        final AtomicLong admitted = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final LatencyHistogram waits = new LatencyHistogram();
+
+        Provider(int quota) {
+            this.quota = quota;
+            this.slots = quota > 0 ? new Semaphore(quota, true) : null;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.automation.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs many tests on one browser process per worker thread by giving each test
+ * its own CDP browser context (separate cookies, storage and cache).
+ *
+ * Enabled with -Ddriver.isolation=context for local Chromium browsers. The
+ * driver returned by {@link #openContext(String)} is the worker's shared
+ * session, switched to a page that lives in the new context.
+ */
+public class BrowserContextManager {
+
+    private static final Logger logger = LogManager.getLogger(BrowserContextManager.class);
+
+    private static BrowserContextManager instance;
+
+    private final Map<Long, HostBrowser> hosts = new ConcurrentHashMap<>();
+    private final AtomicLong contextsCreated = new AtomicLong();
+    private final AtomicLong totalCreateNanos = new AtomicLong();
+    private final AtomicLong totalDisposeNanos = new AtomicLong();
+    private final AtomicLong hostsStarted = new AtomicLong();
+
+    private BrowserContextManager() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "browser-context-shutdown"));
+    }
+
+    public static synchronized BrowserContextManager getInstance() {
+        if (instance == null) {
+            instance = new BrowserContextManager();
+        }
+        return instance;
+    }
+
+    public static boolean isEnabled() {
+        return "context".equalsIgnoreCase(System.getProperty("driver.isolation", "session"));
+    }
+
+    /**
+     * Create a fresh browser context on this thread's shared browser and switch
+     * the driver to a blank page inside it.
+     */
+    public WebDriver openContext(String browser) {
+        long threadId = Thread.currentThread().getId();
+        HostBrowser host = hosts.get(threadId);
+        if (host == null) {
+            host = startHost(browser);
+            hosts.put(threadId, host);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Map<String, Object> context = host.cdp.executeCdpCommand("Target.createBrowserContext",
+                    Collections.singletonMap("disposeOnDetach", false));
+            String contextId = (String) context.get("browserContextId");
+
+            Map<String, Object> params = new HashMap<>();
+            params.put("url", "about:blank");
+            params.put("browserContextId", contextId);
+            String targetId = (String) host.cdp.executeCdpCommand("Target.createTarget", params).get("targetId");
+
+            // chromedriver exposes page targets as window handles keyed by target id
+            host.driver.switchTo().window(targetId);
+            host.contextId = contextId;
+        } catch (RuntimeException e) {
+            logger.warn("Could not open browser context, restarting shared browser: {}", e.getMessage());
+            discardHost(threadId);
+            throw e;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        contextsCreated.incrementAndGet();
+        totalCreateNanos.addAndGet(elapsed);
+        logger.info("Opened browser context {} in {}ms", host.contextId, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return host.driver;
+    }
+
+    /**
+     * Dispose this thread's current context, closing all of its pages.
+     */
+    public void closeContext() {
+        closeContext(Thread.currentThread().getId());
+    }
+
+    /**
+     * Dispose the given worker thread's current context, e.g. when the tracker
+     * reaps a test that leaked it. The shared browser stays up.
+     */
+    public void closeContext(long threadId) {
+        HostBrowser host = hosts.get(threadId);
+        if (host == null || host.contextId == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            host.driver.switchTo().window(host.defaultHandle);
+            host.cdp.executeCdpCommand("Target.disposeBrowserContext",
+                    Collections.singletonMap("browserContextId", host.contextId));
+            totalDisposeNanos.addAndGet(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            logger.warn("Could not dispose browser context {}, restarting shared browser: {}",
+                    host.contextId, e.getMessage());
+            discardHost(threadId);
+            return;
+        }
+        host.contextId = null;
+    }
+
+    /**
+     * Quit every shared browser. Called at suite end.
+     */
+    public void shutdown() {
+        for (Long threadId : hosts.keySet()) {
+            discardHost(threadId);
+        }
+    }
+
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        long created = contextsCreated.get();
+        metrics.put("hostBrowsersStarted", String.valueOf(hostsStarted.get()));
+        metrics.put("contextsCreated", String.valueOf(created));
+        metrics.put("avgContextCreateMs", String.valueOf(created == 0 ? 0
+                : TimeUnit.NANOSECONDS.toMillis(totalCreateNanos.get() / created)));
+        metrics.put("avgContextDisposeMs", String.valueOf(created == 0 ? 0
+                : TimeUnit.NANOSECONDS.toMillis(totalDisposeNanos.get() / created)));
+        return metrics;
+    }
+
+    private HostBrowser startHost(String browser) {
+        WebDriver driver = LocalDriverFactory.createLocalDriver(browser);
+        if (!(driver instanceof HasCdp)) {
+            LocalDriverFactory.quit(driver);
+            throw new IllegalStateException("Browser context isolation requires a Chromium browser, got: " + browser);
+        }
+        hostsStarted.incrementAndGet();
+        return new HostBrowser(driver);
+    }
+
+    private void discardHost(long threadId) {
+        HostBrowser host = hosts.remove(threadId);
+        if (host != null) {
+            try {
+                LocalDriverFactory.quit(host.driver);
+            } catch (Exception e) {
+                logger.warn("Error while quitting shared browser: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class HostBrowser {
+        private final WebDriver driver;
+        private final HasCdp cdp;
+        private final String defaultHandle;
+        private String contextId;
+
+        HostBrowser(WebDriver driver) {
+            this.driver = driver;
+            this.cdp = (HasCdp) driver;
+            this.defaultHandle = driver.getWindowHandle();
+        }
+    }
+}
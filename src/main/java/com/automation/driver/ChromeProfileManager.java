@@ -0,0 +1,295 @@
+package com.automation.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Hands out Chrome user-data directories.
+ *
+ * In the default "thread" mode each worker thread reuses
+ * tmpdir/chrome-profile-&lt;threadId&gt; as before. In "template" mode
+ * (-Dchrome.profile.mode=template) one profile is warmed once per run by
+ * launching Chrome against it, then every session gets a copy-on-write clone
+ * of it that is deleted when the session quits.
+ */
+public class ChromeProfileManager {
+
+    private static final Logger logger = LogManager.getLogger(ChromeProfileManager.class);
+
+    // Files Chrome leaves behind that must not be shared between profiles
+    private static final String[] EXCLUDED_FILES = {"SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile"};
+
+    private static ChromeProfileManager instance;
+
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<WebDriver, Path> profiles = new ConcurrentHashMap<>();
+    private volatile Path template;
+    private final Path diskRoot =
+            Paths.get(System.getProperty("chrome.profile.dir", System.getProperty("java.io.tmpdir")));
+    private long templateBuildNanos;
+
+    private final AtomicLong clonesCreated = new AtomicLong();
+    private final AtomicLong clonesDeleted = new AtomicLong();
+    private final AtomicLong totalCloneNanos = new AtomicLong();
+    private final AtomicLong sessionsStarted = new AtomicLong();
+    private final AtomicLong totalStartupNanos = new AtomicLong();
+
+    private ChromeProfileManager() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::deleteAll, "chrome-profile-cleanup"));
+    }
+
+    public static synchronized ChromeProfileManager getInstance() {
+        if (instance == null) {
+            instance = new ChromeProfileManager();
+        }
+        return instance;
+    }
+
+    public static boolean isTemplateMode() {
+        return "template".equalsIgnoreCase(System.getProperty("chrome.profile.mode", "thread"));
+    }
+
+    /**
+     * Directory new profiles are created under: the RAM scratch space when it is
+     * enabled and within budget, otherwise -Dchrome.profile.dir (default tmpdir).
+     */
+    public Path getBaseDir() {
+        Path root = ScratchSpace.getInstance().profileRoot(diskRoot);
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            logger.warn("Could not create profile directory {}: {}", root, e.getMessage());
+        }
+        return root;
+    }
+
+    /**
+     * Profile directory of a live session, or null if it was not created here.
+     */
+    public Path profileOf(WebDriver driver) {
+        return profiles.get(driver);
+    }
+
+    /**
+     * Get a user-data directory for a new session. In template mode the template
+     * is built on first use with {@code templateLauncher}, which must start Chrome
+     * against the given directory.
+     */
+    public Path acquire(Function<Path, WebDriver> templateLauncher) {
+        if (!isTemplateMode()) {
+            return getBaseDir().resolve("chrome-profile-" + Thread.currentThread().getId());
+        }
+        Path source = ensureTemplate(templateLauncher);
+        Path clone = getBaseDir().resolve("chrome-profile-" + runId + "-" + UUID.randomUUID().toString().substring(0, 8));
+        long start = System.nanoTime();
+        try {
+            cloneTree(source, clone);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to clone Chrome profile template into " + clone, e);
+        }
+        totalCloneNanos.addAndGet(System.nanoTime() - start);
+        clonesCreated.incrementAndGet();
+        return clone;
+    }
+
+    /**
+     * Associate a started session with its profile so it can be removed on quit.
+     */
+    public void bind(WebDriver driver, Path profileDir, long startupNanos) {
+        sessionsStarted.incrementAndGet();
+        totalStartupNanos.addAndGet(startupNanos);
+        logger.info("Chrome session started in {}ms with profile {}", TimeUnit.NANOSECONDS.toMillis(startupNanos), profileDir);
+        profiles.put(driver, profileDir);
+        ScratchSpace scratch = ScratchSpace.getInstance();
+        if (scratch.isRamMode()) {
+            // What the browser wrote at startup counts against the RAM budget straight away
+            scratch.measure(profileDir);
+        }
+    }
+
+    /**
+     * Give back a profile from {@link #acquire} whose session never started,
+     * deleting it if it was a clone.
+     */
+    public void discard(Path profileDir) {
+        if (isTemplateMode()) {
+            deleteQuietly(profileDir);
+            ScratchSpace.getInstance().forget(profileDir);
+            clonesDeleted.incrementAndGet();
+        }
+    }
+
+    /**
+     * Forget a session that has quit, deleting its profile if it was a clone.
+     */
+    public void release(WebDriver driver) {
+        Path clone = profiles.remove(driver);
+        if (clone != null && isTemplateMode()) {
+            deleteQuietly(clone);
+            ScratchSpace.getInstance().forget(clone);
+            clonesDeleted.incrementAndGet();
+        }
+    }
+
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        long started = sessionsStarted.get();
+        long created = clonesCreated.get();
+        metrics.put("mode", isTemplateMode() ? "template" : "thread");
+        metrics.put("sessionsStarted", String.valueOf(started));
+        metrics.put("avgSessionStartupMs", String.valueOf(started == 0 ? 0
+                : TimeUnit.NANOSECONDS.toMillis(totalStartupNanos.get() / started)));
+        metrics.put("templateBuildMs", String.valueOf(TimeUnit.NANOSECONDS.toMillis(templateBuildNanos)));
+        metrics.put("clonesCreated", String.valueOf(created));
+        metrics.put("clonesDeleted", String.valueOf(clonesDeleted.get()));
+        metrics.put("avgCloneMs", String.valueOf(created == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalCloneNanos.get() / created)));
+        metrics.put("profileDiskUsageBytes", String.valueOf(profileDiskUsage()));
+        return metrics;
+    }
+
+    private Path ensureTemplate(Function<Path, WebDriver> templateLauncher) {
+        if (template != null) {
+            return template;
+        }
+        synchronized (this) {
+            if (template == null) {
+                Path dir = getBaseDir().resolve("chrome-profile-template-" + runId);
+                long start = System.nanoTime();
+                logger.info("Building Chrome profile template at {}", dir);
+                WebDriver warmup = templateLauncher.apply(dir);
+                try {
+                    // Let Chrome finish first-run initialisation before we snapshot the profile
+                    warmup.get("about:blank");
+                } finally {
+                    warmup.quit();
+                }
+                for (String name : EXCLUDED_FILES) {
+                    deleteQuietly(dir.resolve(name));
+                }
+                ScratchSpace.getInstance().measure(dir);
+                templateBuildNanos = System.nanoTime() - start;
+                logger.info("Chrome profile template built in {}ms", TimeUnit.NANOSECONDS.toMillis(templateBuildNanos));
+                template = dir;
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Copy a profile directory, using a reflink (copy-on-write) copy where the
+     * platform and filesystem support it.
+     */
+    private void cloneTree(Path source, Path target) throws IOException {
+        if (!System.getProperty("os.name", "").toLowerCase().contains("win")) {
+            try {
+                Process cp = new ProcessBuilder("cp", "-a", "--reflink=auto",
+                        source.toString(), target.toString())
+                        .redirectErrorStream(true)
+                        .start();
+                cp.getInputStream().transferTo(OutputStream.nullOutputStream());
+                if (cp.waitFor() == 0) {
+                    return;
+                }
+                deleteQuietly(target);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while cloning profile", e);
+            } catch (IOException e) {
+                logger.debug("cp --reflink not available, falling back to plain copy: " + e.getMessage());
+            }
+        }
+
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.copy(file, target.resolve(source.relativize(file).toString()),
+                        StandardCopyOption.COPY_ATTRIBUTES, LinkOption.NOFOLLOW_LINKS);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private long profileDiskUsage() {
+        ScratchSpace scratch = ScratchSpace.getInstance();
+        long total = 0;
+        for (Path root : scratch.isRamMode() ? new Path[] {diskRoot, scratch.ramProfileRoot()} : new Path[] {diskRoot}) {
+            try (Stream<Path> dirs = Files.list(root)) {
+                total += dirs
+                        .filter(p -> p.getFileName().toString().startsWith("chrome-profile-"))
+                        .mapToLong(ChromeProfileManager::sizeOf)
+                        .sum();
+            } catch (IOException e) {
+                // Root not created yet
+            }
+        }
+        return total;
+    }
+
+    public static long sizeOf(Path root) {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).mapToLong(p -> {
+                try {
+                    return Files.size(p);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void deleteAll() {
+        if (isTemplateMode()) {
+            profiles.values().forEach(ChromeProfileManager::deleteQuietly);
+        }
+        profiles.clear();
+        if (template != null) {
+            deleteQuietly(template);
+        }
+    }
+
+    static void deleteQuietly(Path path) {
+        if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignored) {
+                    // Best effort; Chrome may still be releasing a file
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+}
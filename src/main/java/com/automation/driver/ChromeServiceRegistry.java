@@ -0,0 +1,194 @@
+package com.automation.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.AddHasCasting;
+import org.openqa.selenium.chrome.AddHasCdp;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps chromedriver processes alive across tests so each new session is a
+ * single HTTP call instead of a process spawn plus port scan.
+ *
+ * Mode is selected with -Dchromedriver.service.mode:
+ * per-session (default, one chromedriver per session), per-thread (one per
+ * worker thread) or shared (one for the whole JVM). In per-thread mode, threads
+ * that only start sessions on behalf of tests (pool warm-up) use the shared one.
+ */
+public class ChromeServiceRegistry {
+
+    private static final Logger logger = LogManager.getLogger(ChromeServiceRegistry.class);
+    private static final String SHARED_KEY = "shared";
+
+    private static ChromeServiceRegistry instance;
+
+    private static final ThreadLocal<Boolean> launcherThread = ThreadLocal.withInitial(() -> false);
+
+    private final Map<String, ChromeDriverService> services = new ConcurrentHashMap<>();
+    // One lock per service key, so starting one worker's chromedriver does not block the others
+    private final Map<String, Object> startLocks = new ConcurrentHashMap<>();
+    private final AtomicLong servicesStarted = new AtomicLong();
+    private final AtomicLong serviceRestarts = new AtomicLong();
+    private final AtomicLong sessionsCreated = new AtomicLong();
+
+    private ChromeServiceRegistry() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stopAll, "chromedriver-service-shutdown"));
+    }
+
+    public static synchronized ChromeServiceRegistry getInstance() {
+        if (instance == null) {
+            instance = new ChromeServiceRegistry();
+        }
+        return instance;
+    }
+
+    /**
+     * Whether chromedriver processes should be reused across sessions.
+     */
+    public static boolean isEnabled() {
+        return !"per-session".equals(getMode());
+    }
+
+    /**
+     * Mark the current thread as one that starts sessions for other threads to use
+     * (e.g. pool warm-up), so it does not get a per-thread chromedriver of its own.
+     */
+    public static void markLauncherThread() {
+        launcherThread.set(true);
+    }
+
+    private static String getMode() {
+        return System.getProperty("chromedriver.service.mode", "per-session").toLowerCase();
+    }
+
+    /**
+     * Start a new Chrome session against the long-lived chromedriver for the current
+     * worker (or the shared one). A crashed service is restarted once and the
+     * session creation retried.
+     */
+    public WebDriver newSession(ChromeOptions options) {
+        String key = serviceKey();
+        ChromeDriverService service = getOrStartService(key);
+        try {
+            return createSession(service, options);
+        } catch (RuntimeException e) {
+            if (service.isRunning()) {
+                throw e;
+            }
+            logger.warn("chromedriver for '{}' is not running, restarting: {}", key, e.getMessage());
+            serviceRestarts.incrementAndGet();
+            return createSession(getOrStartService(key), options);
+        }
+    }
+
+    /**
+     * Stop every chromedriver started by this registry.
+     */
+    public void stopAll() {
+        for (Map.Entry<String, ChromeDriverService> entry : services.entrySet()) {
+            try {
+                entry.getValue().stop();
+            } catch (Exception e) {
+                logger.warn("Error while stopping chromedriver '{}': {}", entry.getKey(), e.getMessage());
+            }
+        }
+        services.clear();
+    }
+
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        metrics.put("mode", getMode());
+        metrics.put("servicesStarted", String.valueOf(servicesStarted.get()));
+        metrics.put("serviceRestarts", String.valueOf(serviceRestarts.get()));
+        metrics.put("sessionsCreated", String.valueOf(sessionsCreated.get()));
+        metrics.put("processSpawnsAvoided", String.valueOf(Math.max(0, sessionsCreated.get() - servicesStarted.get())));
+        return metrics;
+    }
+
+    private String serviceKey() {
+        if ("shared".equals(getMode()) || launcherThread.get()) {
+            return SHARED_KEY;
+        }
+        return String.valueOf(Thread.currentThread().getId());
+    }
+
+    private ChromeDriverService getOrStartService(String key) {
+        ChromeDriverService service = services.get(key);
+        if (service != null && service.isRunning()) {
+            return service;
+        }
+        synchronized (startLocks.computeIfAbsent(key, k -> new Object())) {
+            service = services.get(key);
+            if (service != null && service.isRunning()) {
+                return service;
+            }
+            if (service != null) {
+                // Process died underneath us; make sure it is fully released before replacing it
+                try {
+                    service.stop();
+                } catch (Exception ignored) {
+                    // Already gone
+                }
+            }
+            service = startService(key);
+            services.put(key, service);
+            return service;
+        }
+    }
+
+    private ChromeDriverService startService(String key) {
+        File chromeLog = new File(ScratchSpace.getInstance().logDir(), "chromedriver-" + key + ".log");
+
+        ChromeDriverService service = new ChromeDriverService.Builder()
+                .usingAnyFreePort()
+                .withLogFile(chromeLog)
+                .withVerbose(true)
+                .build();
+        try {
+            service.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start chromedriver service '" + key + "'", e);
+        }
+        servicesStarted.incrementAndGet();
+        logger.info("Started chromedriver service '{}' at {}", key, service.getUrl());
+        return service;
+    }
+
+    private WebDriver createSession(ChromeDriverService service, ChromeOptions options) {
+        WebDriver driver = new ServiceBoundChromeDriver(service, options);
+        sessionsCreated.incrementAndGet();
+        return driver;
+    }
+
+    /**
+     * Chrome session bound to an externally managed chromedriver. Unlike
+     * ChromeDriver, quitting it ends the browser session but leaves the
+     * chromedriver process running for the next session.
+     */
+    static class ServiceBoundChromeDriver extends ChromiumDriver {
+
+        ServiceBoundChromeDriver(ChromeDriverService service, ChromeOptions options) {
+            super(new HttpCommandExecutor(chromeCommands(), service.getUrl()), options, ChromeOptions.CAPABILITY);
+        }
+
+        private static Map<String, CommandInfo> chromeCommands() {
+            Map<String, CommandInfo> commands = new HashMap<>();
+            commands.putAll(new AddHasCasting().getAdditionalCommands());
+            commands.putAll(new AddHasCdp().getAdditionalCommands());
+            return commands;
+        }
+    }
+}
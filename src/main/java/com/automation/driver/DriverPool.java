@@ -0,0 +1,427 @@
+package com.automation.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Function;
+
+/**
+ * Pool of live local browser sessions, leased to tests instead of launching
+ * and quitting a browser for every test method.
+ *
+ * Configuration (system properties):
+ * driver.pool.enabled, driver.pool.minSize, driver.pool.maxSize,
+ * driver.pool.maxUsesPerSession, driver.pool.leaseTimeoutSeconds
+ */
+public class DriverPool {
+
+    private static final Logger logger = LogManager.getLogger(DriverPool.class);
+
+    private static final String ORIGIN_STORAGE_TYPES =
+            "local_storage,indexeddb,websql,cache_storage,service_workers,file_systems";
+
+    private static DriverPool instance;
+
+    private final Function<String, WebDriver> factory;
+    private final int minSize;
+    private final int maxSize;
+    private final int maxUsesPerSession;
+    private final long leaseTimeoutMillis;
+    private final Map<String, BrowserPool> pools = new ConcurrentHashMap<>();
+    private final long createdAtNanos = System.nanoTime();
+
+    // Metrics
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong sessionsCreated = new AtomicLong();
+    private final AtomicLong sessionsReused = new AtomicLong();
+    private final AtomicLong sessionsQuit = new AtomicLong();
+    private final AtomicLong resetFailures = new AtomicLong();
+    private final AtomicLong totalStartupNanos = new AtomicLong();
+    private final AtomicLong totalLeaseWaitNanos = new AtomicLong();
+    private final LongAccumulator maxLeaseWaitNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLong firstLeaseNanos = new AtomicLong();
+
+    public DriverPool(Function<String, WebDriver> factory, int minSize, int maxSize,
+                      int maxUsesPerSession, long leaseTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("driver.pool.maxSize must be at least 1");
+        }
+        this.factory = factory;
+        this.minSize = Math.max(0, Math.min(minSize, maxSize));
+        this.maxSize = maxSize;
+        this.maxUsesPerSession = Math.max(1, maxUsesPerSession);
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+    }
+
+    /**
+     * Whether tests should lease pooled sessions instead of creating their own.
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("driver.pool.enabled", "false"));
+    }
+
+    public static synchronized DriverPool getInstance() {
+        if (instance == null) {
+            instance = new DriverPool(
+                    LocalDriverFactory::createLocalDriver,
+                    Integer.getInteger("driver.pool.minSize", 0),
+                    Integer.getInteger("driver.pool.maxSize", 4),
+                    Integer.getInteger("driver.pool.maxUsesPerSession", 50),
+                    TimeUnit.SECONDS.toMillis(Long.getLong("driver.pool.leaseTimeoutSeconds", 120)));
+            // Idle pooled sessions are not owned by any test, so make sure they never outlive the JVM
+            DriverPool pool = instance;
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "driver-pool-shutdown"));
+        }
+        return instance;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Lease a live session for the given browser, reusing an idle one when available.
+     */
+    public PooledSession lease(String browser) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMillis);
+        BrowserPool pool = poolFor(browser);
+        PooledSession session = null;
+
+        try {
+            while (session == null) {
+                PooledSession idle = pool.idle.pollFirst();
+                if (idle != null) {
+                    session = idle;
+                    sessionsReused.incrementAndGet();
+                } else if (pool.warming.get() == 0 && pool.permits.tryAcquire()) {
+                    session = createSession(pool);
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new RuntimeException("Timed out after " + leaseTimeoutMillis
+                                + "ms waiting for a pooled " + browser + " session (maxSize=" + maxSize + ")");
+                    }
+                    // Wait for a warm-up to finish or a session to be released back to the pool
+                    session = pool.idle.pollFirst(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(250)),
+                            TimeUnit.NANOSECONDS);
+                    if (session != null) {
+                        sessionsReused.incrementAndGet();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a pooled session", e);
+        }
+
+        long waited = System.nanoTime() - start;
+        leases.incrementAndGet();
+        totalLeaseWaitNanos.addAndGet(waited);
+        maxLeaseWaitNanos.accumulate(waited);
+        firstLeaseNanos.compareAndSet(0, System.nanoTime());
+        session.uses++;
+        logger.info("Leased pooled {} session #{} (use {} of {}) in {}ms",
+                browser, session.id, session.uses, maxUsesPerSession, TimeUnit.NANOSECONDS.toMillis(waited));
+        return session;
+    }
+
+    /**
+     * Start {@code count} sessions in parallel and park them in the pool as each
+     * becomes ready. Returns immediately; the future completes with a warm-up
+     * summary once every launch has finished or failed.
+     */
+    public CompletableFuture<Map<String, String>> warmUp(String browser, int count) {
+        BrowserPool pool = poolFor(browser);
+        int launches = 0;
+        while (launches < count && pool.permits.tryAcquire()) {
+            launches++;
+        }
+        if (launches == 0) {
+            return CompletableFuture.completedFuture(Collections.singletonMap("sessionsStarted", "0"));
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        pool.warming.addAndGet(launches);
+        ExecutorService executor = Executors.newFixedThreadPool(launches, r -> {
+            // Warm-up threads end with the warm-up; they must not get a chromedriver of their own
+            Thread t = new Thread(() -> {
+                ChromeServiceRegistry.markLauncherThread();
+                r.run();
+            }, "driver-warmup-" + pool.browser);
+            t.setDaemon(true);
+            return t;
+        });
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[launches];
+        for (int i = 0; i < launches; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    pool.idle.offerLast(createSession(pool));
+                    started.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // createSession already returned the permit
+                    failed.incrementAndGet();
+                    logger.warn("Warm-up launch of {} failed: {}", pool.browser, e.getMessage());
+                } finally {
+                    pool.warming.decrementAndGet();
+                }
+            }, executor);
+        }
+        executor.shutdown();
+
+        int requested = launches;
+        return CompletableFuture.allOf(futures).thenApply(ignored -> {
+            Map<String, String> summary = new LinkedHashMap<>();
+            summary.put("browser", pool.browser);
+            summary.put("sessionsRequested", String.valueOf(requested));
+            summary.put("sessionsStarted", String.valueOf(started.get()));
+            summary.put("sessionsFailed", String.valueOf(failed.get()));
+            summary.put("warmupMs", String.valueOf(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            logger.info("Driver warm-up finished: {}", summary);
+            return summary;
+        });
+    }
+
+    /**
+     * Return a session to the pool. Sessions that are not reusable (failed test),
+     * have reached their use limit, or cannot be reset are quit instead.
+     */
+    public void release(PooledSession session, boolean reusable) {
+        if (session == null) {
+            return;
+        }
+        BrowserPool pool = poolFor(session.browser);
+        if (!reusable || session.uses >= maxUsesPerSession) {
+            discard(pool, session, reusable ? "max uses reached" : "test failed");
+            return;
+        }
+        try {
+            reset(session.driver);
+            pool.idle.offerFirst(session);
+        } catch (Exception e) {
+            resetFailures.incrementAndGet();
+            discard(pool, session, "reset failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Quit every pooled session. Called once at suite end.
+     */
+    public void shutdown() {
+        for (BrowserPool pool : pools.values()) {
+            PooledSession session;
+            while ((session = pool.idle.pollFirst()) != null) {
+                discard(pool, session, "suite finished");
+            }
+        }
+        logger.info("Driver pool shut down: {}", getMetrics());
+    }
+
+    /**
+     * Snapshot of pool metrics, suitable for the analytics log.
+     */
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        long created = sessionsCreated.get();
+        long reused = sessionsReused.get();
+        long leaseCount = leases.get();
+        long avgStartupMs = created == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalStartupNanos.get() / created);
+        metrics.put("leases", String.valueOf(leaseCount));
+        metrics.put("sessionsCreated", String.valueOf(created));
+        metrics.put("sessionsReused", String.valueOf(reused));
+        metrics.put("sessionsQuit", String.valueOf(sessionsQuit.get()));
+        metrics.put("resetFailures", String.valueOf(resetFailures.get()));
+        metrics.put("avgStartupMs", String.valueOf(avgStartupMs));
+        metrics.put("estimatedStartupSavedMs", String.valueOf(reused * avgStartupMs));
+        metrics.put("avgLeaseWaitMs", String.valueOf(leaseCount == 0 ? 0
+                : TimeUnit.NANOSECONDS.toMillis(totalLeaseWaitNanos.get() / leaseCount)));
+        metrics.put("maxLeaseWaitMs", String.valueOf(TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitNanos.get())));
+        long firstLease = firstLeaseNanos.get();
+        metrics.put("timeToFirstLeaseMs", String.valueOf(firstLease == 0 ? -1
+                : TimeUnit.NANOSECONDS.toMillis(firstLease - createdAtNanos)));
+        metrics.put("minSize", String.valueOf(minSize));
+        metrics.put("maxSize", String.valueOf(maxSize));
+        metrics.put("maxUsesPerSession", String.valueOf(maxUsesPerSession));
+        return metrics;
+    }
+
+    private BrowserPool poolFor(String browser) {
+        String key = browser == null || browser.isEmpty() ? "chrome" : browser.toLowerCase();
+        BrowserPool pool = pools.get(key);
+        if (pool != null) {
+            return pool;
+        }
+        // Browsers are launched outside the map: a launch takes seconds and must not hold its bin lock
+        BrowserPool created = new BrowserPool(key, maxSize);
+        pool = pools.putIfAbsent(key, created);
+        if (pool != null) {
+            return pool;
+        }
+        preCreate(created);
+        return created;
+    }
+
+    private void preCreate(BrowserPool pool) {
+        for (int i = 0; i < minSize && pool.permits.tryAcquire(); i++) {
+            try {
+                pool.idle.offerLast(createSession(pool));
+            } catch (RuntimeException e) {
+                logger.warn("Could not pre-create pooled {} session: {}", pool.browser, e.getMessage());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Create a session for a pool. Caller must already hold one of the pool's permits.
+     */
+    private PooledSession createSession(BrowserPool pool) {
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = factory.apply(pool.browser);
+            long elapsed = System.nanoTime() - start;
+            totalStartupNanos.addAndGet(elapsed);
+            long id = sessionsCreated.incrementAndGet();
+            logger.info("Started pooled {} session #{} in {}ms", pool.browser, id, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return new PooledSession(id, pool.browser, driver);
+        } catch (RuntimeException e) {
+            pool.permits.release();
+            throw e;
+        }
+    }
+
+    private void discard(BrowserPool pool, PooledSession session, String reason) {
+        logger.info("Quitting pooled {} session #{} ({})", session.browser, session.id, reason);
+        try {
+            LocalDriverFactory.quit(session.driver);
+        } catch (Exception e) {
+            logger.warn("Error while quitting pooled driver: " + e.getMessage());
+        } finally {
+            sessionsQuit.incrementAndGet();
+            pool.permits.release();
+        }
+    }
+
+    /**
+     * Bring a session back to a clean state: cookies and web storage cleared,
+     * parked on about:blank in a fresh tab (which also drops sessionStorage).
+     *
+     * On Chromium, local storage, IndexedDB and caches are cleared for every
+     * origin in the navigation history of each open tab. Other browsers have no
+     * equivalent, so only the origin the test ended on is cleared there.
+     */
+    static void reset(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+
+        Set<String> origins = new LinkedHashSet<>();
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        for (String handle : handles) {
+            if (driver instanceof HasCdp) {
+                driver.switchTo().window(handle);
+                origins.addAll(visitedOrigins((HasCdp) driver));
+            }
+        }
+        driver.switchTo().newWindow(WindowType.TAB);
+        String fresh = driver.getWindowHandle();
+        for (String handle : handles) {
+            driver.switchTo().window(handle);
+            driver.close();
+        }
+        driver.switchTo().window(fresh);
+
+        driver.manage().deleteAllCookies();
+        if (driver instanceof HasCdp) {
+            HasCdp cdp = (HasCdp) driver;
+            // deleteAllCookies only covers the current domain; CDP clears the whole cookie jar
+            cdp.executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+            for (String origin : origins) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("origin", origin);
+                params.put("storageTypes", ORIGIN_STORAGE_TYPES);
+                cdp.executeCdpCommand("Storage.clearDataForOrigin", params);
+            }
+        }
+        driver.get("about:blank");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> visitedOrigins(HasCdp cdp) {
+        Set<String> origins = new LinkedHashSet<>();
+        Map<String, Object> history = cdp.executeCdpCommand("Page.getNavigationHistory", Collections.emptyMap());
+        for (Map<String, Object> entry : (List<Map<String, Object>>) history.get("entries")) {
+            try {
+                URI uri = URI.create(String.valueOf(entry.get("url")));
+                if ("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) {
+                    origins.add(uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort()));
+                }
+            } catch (IllegalArgumentException e) {
+                // Not a URL we can derive an origin from
+            }
+        }
+        return origins;
+    }
+
+    /**
+     * A live session owned by the pool.
+     */
+    public static final class PooledSession {
+        private final long id;
+        private final String browser;
+        private final WebDriver driver;
+        private final long createdAtMillis;
+        private int uses;
+
+        PooledSession(long id, String browser, WebDriver driver) {
+            this.id = id;
+            this.browser = browser;
+            this.driver = driver;
+            this.createdAtMillis = System.currentTimeMillis();
+        }
+
+        public long getId() { return id; }
+        public String getBrowser() { return browser; }
+        public WebDriver getDriver() { return driver; }
+        public long getCreatedAtMillis() { return createdAtMillis; }
+        public int getUses() { return uses; }
+    }
+
+    private static final class BrowserPool {
+        private final String browser;
+        private final LinkedBlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+        private final Semaphore permits;
+        // Launches in flight from warmUp; leases wait for these rather than starting their own
+        private final AtomicInteger warming = new AtomicInteger();
+
+        BrowserPool(String browser, int maxSize) {
+            this.browser = browser;
+            this.permits = new Semaphore(maxSize, true);
+        }
+    }
+}
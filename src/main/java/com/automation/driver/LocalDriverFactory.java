@@ -0,0 +1,185 @@
+package com.automation.driver;
+
+import com.automation.config.CloudConfig;
+import com.automation.network.HarProxy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.AbstractDriverOptions;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * Creates local browser sessions. Lives outside BaseTest so that suite-level
+ * components (session pool, listeners) can start browsers without a test instance.
+ */
+public final class LocalDriverFactory {
+
+    private static final Logger logger = LogManager.getLogger(LocalDriverFactory.class);
+
+    private LocalDriverFactory() {
+    }
+
+    /**
+     * Create a new local WebDriver for the given browser name.
+     */
+    public static WebDriver createLocalDriver(String browser) {
+        if (browser == null || browser.isEmpty()) {
+            browser = "chrome";
+        }
+
+        switch (browser.toLowerCase()) {
+            case "chrome":
+                long start = System.nanoTime();
+                ChromeProfileManager profiles = ChromeProfileManager.getInstance();
+                Path userDataDir = profiles.acquire(dir -> new ChromeDriver(chromeOptions(dir)));
+                WebDriver chrome;
+                try {
+                    chrome = startChrome(chromeOptions(userDataDir));
+                } catch (RuntimeException e) {
+                    // Nothing will ever quit this session, so its cloned profile would be left behind
+                    profiles.discard(userDataDir);
+                    throw e;
+                }
+                profiles.bind(chrome, userDataDir, System.nanoTime() - start);
+                return chrome;
+
+            case "firefox":
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                // Mirror Chrome behaviour for headless selection
+                if (Boolean.parseBoolean(System.getProperty("headless", "false")) || isCiEnvironment()) {
+                    firefoxOptions.addArguments("--headless");
+                }
+                firefoxOptions.setPageLoadStrategy(CloudConfig.getPageLoadStrategy());
+                applyHarProxy(firefoxOptions);
+                return new FirefoxDriver(firefoxOptions);
+
+            case "edge":
+                EdgeOptions edgeOptions = new EdgeOptions();
+                edgeOptions.setPageLoadStrategy(CloudConfig.getPageLoadStrategy());
+                applyHarProxy(edgeOptions);
+                return new EdgeDriver(edgeOptions);
+
+            default:
+                logger.warn("Browser '{}' not supported, defaulting to Chrome", browser);
+                return new ChromeDriver();
+        }
+    }
+
+    /**
+     * Quit a session created by this factory and release its per-session resources.
+     */
+    public static void quit(WebDriver driver) {
+        try {
+            driver.quit();
+        } finally {
+            ChromeProfileManager.getInstance().release(driver);
+        }
+    }
+
+    private static ChromeOptions chromeOptions(Path userDataDir) {
+        ChromeOptions chromeOptions = new ChromeOptions();
+        // Allow remote origins when using newer Chrome/Chromedriver
+        chromeOptions.addArguments("--remote-allow-origins=*");
+
+        // Each session gets its own profile (per thread, or a cloned template) to avoid profile lock/contention
+        chromeOptions.addArguments("--user-data-dir=" + userDataDir);
+
+        // Stability flags for parallel runs
+        chromeOptions.addArguments("--no-sandbox");
+        chromeOptions.addArguments("--disable-dev-shm-usage");
+        chromeOptions.addArguments("--disable-extensions");
+        chromeOptions.addArguments("--disable-background-timer-throttling");
+        chromeOptions.addArguments("--disable-renderer-backgrounding");
+        chromeOptions.addArguments("--disable-backgrounding-occluded-windows");
+        chromeOptions.addArguments("--disable-gpu");
+        chromeOptions.addArguments("--no-first-run");
+        chromeOptions.addArguments("--disable-infobars");
+
+        // Headless mode for CI or when explicitly requested
+        // Enable headless if explicitly requested or if running in CI (no display available)
+        boolean headlessRequested = Boolean.parseBoolean(System.getProperty("headless", "false")) || isCiEnvironment();
+        if (headlessRequested) {
+            chromeOptions.addArguments("--headless=new");
+            chromeOptions.addArguments("--window-size=1920,1080");
+        }
+
+        // eager/none return from navigation early; BasePage readiness decides when the page is usable
+        chromeOptions.setPageLoadStrategy(CloudConfig.getPageLoadStrategy());
+
+        // Route traffic through the HAR record/replay proxy when configured
+        applyHarProxy(chromeOptions);
+
+        // Bound the HTTP cache when the profile lives in RAM
+        long cacheBytes = ScratchSpace.getInstance().diskCacheBytes();
+        if (cacheBytes > 0) {
+            chromeOptions.addArguments("--disk-cache-size=" + cacheBytes);
+        }
+        return chromeOptions;
+    }
+
+    private static void applyHarProxy(AbstractDriverOptions<?> options) {
+        if (!HarProxy.isEnabled()) {
+            return;
+        }
+        String address = HarProxy.getInstance().getAddress();
+        Proxy proxy = new Proxy();
+        proxy.setHttpProxy(address);
+        proxy.setSslProxy(address);
+        options.setProxy(proxy);
+        // The proxy terminates TLS with its own self-signed certificate
+        options.setAcceptInsecureCerts(true);
+    }
+
+    private static WebDriver startChrome(ChromeOptions chromeOptions) {
+        // Reuse a long-lived chromedriver for this worker when configured
+        if (ChromeServiceRegistry.isEnabled()) {
+            return ChromeServiceRegistry.getInstance().newSession(chromeOptions);
+        }
+
+        // Create a per-thread ChromeDriver log file under target/
+        File chromeLog = new File(ScratchSpace.getInstance().logDir(), "chromedriver-" + Thread.currentThread().getId() + ".log");
+
+        // Try to create a ChromeDriverService that writes verbose logs to the file.
+        // If creating the service fails, fall back to the no-service constructor.
+        ChromeDriverService service;
+        try {
+            service = new ChromeDriverService.Builder()
+                    .usingAnyFreePort()
+                    .withLogFile(chromeLog)
+                    .withVerbose(true)
+                    .build();
+            return new ChromeDriver(service, chromeOptions);
+        } catch (Exception e) {
+            // Some Selenium versions may throw unchecked exceptions here; log and fall back
+            logger.warn("Could not create ChromeDriverService for verbose logging: {}", e.getMessage());
+            return new ChromeDriver(chromeOptions);
+        }
+    }
+
+    // Detect common CI environments (GitHub Actions, generic CI) to auto-enable headless mode when needed.
+    public static boolean isCiEnvironment() {
+        try {
+            String gh = System.getenv("GITHUB_ACTIONS");
+            if (gh != null && gh.equalsIgnoreCase("true")) {
+                return true;
+            }
+            String ci = System.getenv("CI");
+            if (ci != null && ci.equalsIgnoreCase("true")) {
+                return true;
+            }
+        } catch (Exception e) {
+            // safely ignore any security manager issues accessing env
+        }
+        return false;
+    }
+}
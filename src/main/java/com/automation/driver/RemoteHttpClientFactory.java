@@ -0,0 +1,284 @@
+package com.automation.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import org.openqa.selenium.remote.http.jdk.JdkHttpClient;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import java.net.URL;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP client factory for remote (grid/cloud) sessions that gives every
+ * session against the same hub one shared client: one connection pool with
+ * keep-alive, one thread pool and one TLS session cache, instead of a fresh
+ * client, executor and handshake per session.
+ *
+ * Timeouts come from -Dremote.http.connectTimeoutSeconds (10) and
+ * -Dremote.http.readTimeoutSeconds (120). Idle connections are kept for
+ * -Dremote.http.keepAliveSeconds (30, below the usual hub idle cut-off); the
+ * JDK reads that setting once per JVM, so it only applies if no other JDK HTTP
+ * client was created first. Disable sharing with -Dremote.http.shared=false.
+ */
+public class RemoteHttpClientFactory implements HttpClient.Factory {
+
+    private static final Logger logger = LogManager.getLogger(RemoteHttpClientFactory.class);
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    private static RemoteHttpClientFactory instance;
+
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+    private final AtomicLong clientsCreated = new AtomicLong();
+    private final AtomicLong sessionsServed = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final AtomicLong tlsConnections = new AtomicLong();
+    private final AtomicLong preconnected = new AtomicLong();
+    private final AtomicLong preconnectMillis = new AtomicLong();
+
+    public RemoteHttpClientFactory(Duration connectTimeout, Duration readTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    public static synchronized RemoteHttpClientFactory getInstance() {
+        if (instance == null) {
+            if (System.getProperty(KEEP_ALIVE_PROPERTY) == null) {
+                System.setProperty(KEEP_ALIVE_PROPERTY, String.valueOf(Integer.getInteger("remote.http.keepAliveSeconds", 30)));
+            }
+            instance = new RemoteHttpClientFactory(
+                    Duration.ofSeconds(Long.getLong("remote.http.connectTimeoutSeconds", 10)),
+                    Duration.ofSeconds(Long.getLong("remote.http.readTimeoutSeconds", 120)));
+        }
+        return instance;
+    }
+
+    /**
+     * Whether remote sessions should share HTTP clients.
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("remote.http.shared", "true"));
+    }
+
+    /**
+     * Client config for a hub with this factory's timeouts, for use with
+     * {@code new HttpCommandExecutor(commands, config, factory)}.
+     */
+    public ClientConfig clientConfig(URL hub) {
+        return ClientConfig.defaultConfig()
+                .baseUrl(hub)
+                .connectionTimeout(connectTimeout)
+                .readTimeout(readTimeout);
+    }
+
+    /**
+     * The shared client for the config's hub. Closing it (as RemoteWebDriver
+     * does on quit) leaves the pool open for the next session.
+     */
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        sessionsServed.incrementAndGet();
+        return sharedClient(config);
+    }
+
+    /**
+     * Open up to {@code connections} keep-alive connections to the hub by
+     * sending concurrent /status requests, so the first sessions skip the
+     * TCP/TLS setup. Failures are logged and otherwise ignored.
+     */
+    public void preconnect(URL hub, int connections) {
+        HttpClient client = sharedClient(clientConfig(hub));
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse>> pending = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            pending.add(client.executeAsync(new HttpRequest(HttpMethod.GET, "/status")));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse> response : pending) {
+            try {
+                response.get(connectTimeout.toMillis() + readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                ok++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.warn("Pre-connect to {} failed: {}", hub.getHost(), e.getMessage());
+            }
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        preconnected.addAndGet(ok);
+        preconnectMillis.addAndGet(elapsed);
+        logger.info("Pre-connected {}/{} connection(s) to {} in {}ms", ok, connections, hub.getHost(), elapsed);
+    }
+
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        long sent = requests.get();
+        long opened = tlsConnections.get();
+        metrics.put("clients", String.valueOf(clientsCreated.get()));
+        metrics.put("sessions", String.valueOf(sessionsServed.get()));
+        metrics.put("requests", String.valueOf(sent));
+        metrics.put("failedRequests", String.valueOf(failedRequests.get()));
+        // Only TLS connections are observable; plain-HTTP hubs report 0
+        metrics.put("tlsConnections", String.valueOf(opened));
+        metrics.put("requestsPerTlsConnection", String.format("%.1f", opened == 0 ? 0.0 : (double) sent / opened));
+        metrics.put("preconnected", String.valueOf(preconnected.get()));
+        metrics.put("preconnectMs", String.valueOf(preconnectMillis.get()));
+        return metrics;
+    }
+
+    private HttpClient sharedClient(ClientConfig config) {
+        return clients.computeIfAbsent(config.baseUri().toString(), key -> newClient(config));
+    }
+
+    private HttpClient newClient(ClientConfig config) {
+        ClientConfig tuned = config.connectionTimeout(connectTimeout).readTimeout(readTimeout);
+        if ("https".equalsIgnoreCase(config.baseUri().getScheme())) {
+            tuned = tuned.sslContext(countingSslContext(config.sslContext()));
+        }
+        clientsCreated.incrementAndGet();
+        logger.info("Shared HTTP client for {}://{} (connect {}s, read {}s)",
+                config.baseUri().getScheme(), config.baseUri().getHost(),
+                connectTimeout.getSeconds(), readTimeout.getSeconds());
+        return new SharedClient(new JdkHttpClient.Factory().createClient(tuned));
+    }
+
+    private SSLContext countingSslContext(SSLContext configured) {
+        try {
+            SSLContext delegate = configured != null ? configured : SSLContext.getDefault();
+            return new SSLContext(new CountingSslContextSpi(delegate), delegate.getProvider(), delegate.getProtocol()) {
+            };
+        } catch (NoSuchAlgorithmException e) {
+            logger.warn("No default SSL context, TLS connections will not be counted: {}", e.getMessage());
+            return configured;
+        }
+    }
+
+    /**
+     * Client handed to each session. close() is a no-op so quitting one session
+     * does not tear down the pool the others are using.
+     */
+    private final class SharedClient implements HttpClient {
+
+        private final HttpClient delegate;
+
+        SharedClient(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            requests.incrementAndGet();
+            try {
+                return delegate.execute(request);
+            } catch (RuntimeException e) {
+                failedRequests.incrementAndGet();
+                throw e;
+            }
+        }
+
+        @Override
+        public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+            requests.incrementAndGet();
+            return delegate.executeAsync(request).whenComplete((response, error) -> {
+                if (error != null) {
+                    failedRequests.incrementAndGet();
+                }
+            });
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return delegate.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // Shared across sessions; released with the JVM
+        }
+    }
+
+    /**
+     * The JDK client creates one SSLEngine per new TLS connection, so counting
+     * engines counts handshakes; everything else is delegated.
+     */
+    private final class CountingSslContextSpi extends SSLContextSpi {
+
+        private final SSLContext delegate;
+
+        CountingSslContextSpi(SSLContext delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        protected void engineInit(javax.net.ssl.KeyManager[] km, javax.net.ssl.TrustManager[] tm, SecureRandom random) {
+            throw new UnsupportedOperationException("Already initialised");
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            tlsConnections.incrementAndGet();
+            return delegate.createSSLEngine();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            tlsConnections.incrementAndGet();
+            return delegate.createSSLEngine(host, port);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.automation.driver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides where browser scratch data (profiles and their disk caches) lives.
+ *
+ * With -Dbrowser.scratch=ram profiles go under a RAM-backed directory
+ * (-Dbrowser.scratch.path, default /dev/shm/selenium-scratch) until its size
+ * reaches -Dbrowser.scratch.budgetMb, after which new sessions fall back to disk.
+ * Usage is tracked per profile as sessions start and tests finish, so the
+ * budget check itself never scans the directory. Driver logs grow without
+ * bound on long runs and always stay on disk under target/. The RAM directory
+ * is removed at JVM exit.
+ */
+public class ScratchSpace {
+
+    private static final Logger logger = LogManager.getLogger(ScratchSpace.class);
+    private static final long MB = 1024L * 1024L;
+
+    private static ScratchSpace instance;
+
+    private final boolean ramMode;
+    private final Path ramRoot;
+    private final long budgetBytes;
+    private final AtomicBoolean fallbackLogged = new AtomicBoolean();
+    private final AtomicLong ramAllocations = new AtomicLong();
+    private final AtomicLong diskFallbacks = new AtomicLong();
+    private final AtomicLong profileGrowth = new AtomicLong();
+    // Last measured size of each profile under the RAM root, and their total
+    private final Map<Path, Long> profileSizes = new ConcurrentHashMap<>();
+    private final AtomicLong ramUsage = new AtomicLong();
+
+    private ScratchSpace() {
+        boolean requested = "ram".equalsIgnoreCase(System.getProperty("browser.scratch", "disk"));
+        this.ramRoot = Paths.get(System.getProperty("browser.scratch.path", "/dev/shm/selenium-scratch"));
+        this.budgetBytes = Long.getLong("browser.scratch.budgetMb", 512) * MB;
+        this.ramMode = requested && prepareRamRoot();
+        if (ramMode) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::cleanUp, "scratch-space-cleanup"));
+        }
+    }
+
+    public static synchronized ScratchSpace getInstance() {
+        if (instance == null) {
+            instance = new ScratchSpace();
+        }
+        return instance;
+    }
+
+    public boolean isRamMode() {
+        return ramMode;
+    }
+
+    /**
+     * Directory new browser profiles should be created under. Falls back to the
+     * disk location once the RAM budget is used up.
+     */
+    public Path profileRoot(Path diskRoot) {
+        if (!ramMode) {
+            return diskRoot;
+        }
+        long used = ramUsage.get();
+        if (used >= budgetBytes) {
+            diskFallbacks.incrementAndGet();
+            if (fallbackLogged.compareAndSet(false, true)) {
+                logger.warn("RAM scratch space {} is using {}MB of its {}MB budget, new profiles fall back to {}",
+                        ramRoot, used / MB, budgetBytes / MB, diskRoot);
+            }
+            return diskRoot;
+        }
+        ramAllocations.incrementAndGet();
+        return ramProfileRoot();
+    }
+
+    Path ramProfileRoot() {
+        return ramRoot.resolve("profiles");
+    }
+
+    /**
+     * Current size of a profile directory. Profiles in the RAM scratch space are
+     * also re-counted against the budget.
+     */
+    public long measure(Path profile) {
+        long size = ChromeProfileManager.sizeOf(profile);
+        if (ramMode && profile.startsWith(ramRoot)) {
+            Long previous = profileSizes.put(profile, size);
+            ramUsage.addAndGet(size - (previous != null ? previous : 0));
+        }
+        return size;
+    }
+
+    /**
+     * Stop counting a profile that has been deleted.
+     */
+    public void forget(Path profile) {
+        Long previous = profileSizes.remove(profile);
+        if (previous != null) {
+            ramUsage.addAndGet(-previous);
+        }
+    }
+
+    /**
+     * Directory for driver log files. Always on disk: logs have no size limit.
+     */
+    public File logDir() {
+        File dir = new File("target");
+        if (!dir.exists() && !dir.mkdirs()) {
+            logger.warn("Could not create log directory: {}", dir.getAbsolutePath());
+        }
+        return dir;
+    }
+
+    /**
+     * Upper bound for Chrome's HTTP disk cache, or -1 to leave Chrome's default.
+     */
+    public long diskCacheBytes() {
+        return ramMode ? Long.getLong("browser.scratch.cacheMb", 32) * MB : -1;
+    }
+
+    /**
+     * Record how much a test grew its session's profile directory.
+     */
+    public void recordProfileGrowth(long bytes) {
+        if (bytes > 0) {
+            profileGrowth.addAndGet(bytes);
+        }
+    }
+
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        metrics.put("mode", ramMode ? "ram" : "disk");
+        metrics.put("ramRoot", ramRoot.toString());
+        metrics.put("budgetMb", String.valueOf(budgetBytes / MB));
+        metrics.put("ramUsageBytes", String.valueOf(ramUsage.get()));
+        metrics.put("ramAllocations", String.valueOf(ramAllocations.get()));
+        metrics.put("diskFallbacks", String.valueOf(diskFallbacks.get()));
+        metrics.put("profileGrowthBytes", String.valueOf(profileGrowth.get()));
+        return metrics;
+    }
+
+    private boolean prepareRamRoot() {
+        try {
+            Files.createDirectories(ramProfileRoot());
+            logger.info("Browser scratch space in RAM at {} (budget {}MB)", ramRoot, budgetBytes / MB);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.warn("RAM scratch path {} is not usable, using disk: {}", ramRoot, e.getMessage());
+            return false;
+        }
+    }
+
+    private void cleanUp() {
+        ChromeProfileManager.deleteQuietly(ramRoot);
+    }
+}
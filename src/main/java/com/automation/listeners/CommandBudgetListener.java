@@ -0,0 +1,127 @@
+package com.automation.listeners;
+
+import com.automation.analytics.CommandAuditor;
+import com.automation.analytics.CommandBudget;
+import com.automation.analytics.TestAnalyticsLogger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enforces per-test WebDriver command budgets, checked right after each test
+ * method against the counts of the test's {@link CommandAuditor}. Both the
+ * command count and driver time cover the test method only, so setUp (initial
+ * navigation, readiness polling) does not eat into the budget.
+ *
+ * Budgets come from {@link CommandBudget} on the test method, otherwise from
+ * testng.xml parameters "command.budget.&lt;method&gt;.maxCommands" /
+ * ".maxDriverMillis", falling back to "command.budget.maxCommands" /
+ * "command.budget.maxDriverMillis". A test over budget fails, or only logs a
+ * warning with -Dcommand.budget.mode=warn; either way the breakdown by
+ * page-object method is logged and a "webdriver.commands.budget" event emitted.
+ */
+public class CommandBudgetListener implements IInvokedMethodListener {
+
+    private static final Logger logger = LogManager.getLogger(CommandBudgetListener.class);
+    private static final String PARAM_PREFIX = "command.budget.";
+
+    @Override
+    public void beforeInvocation(IInvokedMethod invokedMethod, ITestResult result) {
+        CommandAuditor auditor = CommandAuditor.current();
+        if (invokedMethod.isTestMethod() && auditor != null) {
+            auditor.markTestStart();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod invokedMethod, ITestResult result) {
+        CommandAuditor auditor = CommandAuditor.current();
+        if (!invokedMethod.isTestMethod() || auditor == null) {
+            return;
+        }
+        String testName = result.getMethod().getMethodName();
+        Method method = result.getMethod().getConstructorOrMethod().getMethod();
+        CommandBudget annotation = method != null ? method.getAnnotation(CommandBudget.class) : null;
+        XmlTest xmlTest = result.getTestContext().getCurrentXmlTest();
+
+        long maxCommands = resolve(annotation != null ? annotation.maxCommands() : -1, xmlTest, testName, "maxCommands");
+        long maxDriverMillis = resolve(annotation != null ? annotation.maxDriverMillis() : -1, xmlTest, testName,
+                "maxDriverMillis");
+        long commands = auditor.getTestCommandCount();
+        long driverMillis = auditor.getTestDriverMillis();
+
+        List<String> exceeded = new ArrayList<>();
+        if (maxCommands >= 0 && commands > maxCommands) {
+            exceeded.add(commands + " commands (budget " + maxCommands + ")");
+        }
+        if (maxDriverMillis >= 0 && driverMillis > maxDriverMillis) {
+            exceeded.add(driverMillis + "ms driver time (budget " + maxDriverMillis + "ms)");
+        }
+        if (exceeded.isEmpty()) {
+            return;
+        }
+
+        boolean enforce = !"warn".equalsIgnoreCase(System.getProperty("command.budget.mode", "fail"));
+        String message = testName + " exceeded its WebDriver command budget: " + String.join(", ", exceeded)
+                + ". By page-object method: " + breakdown(auditor);
+        emit(testName, commands, maxCommands, driverMillis, maxDriverMillis, enforce);
+
+        if (enforce && result.getStatus() == ITestResult.SUCCESS) {
+            logger.error(message);
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError(message));
+        } else {
+            logger.warn(message);
+        }
+    }
+
+    private static long resolve(long annotated, XmlTest xmlTest, String testName, String key) {
+        if (annotated >= 0) {
+            return annotated;
+        }
+        String value = xmlTest != null ? xmlTest.getParameter(PARAM_PREFIX + testName + "." + key) : null;
+        if (value == null && xmlTest != null) {
+            value = xmlTest.getParameter(PARAM_PREFIX + key);
+        }
+        try {
+            return value != null ? Long.parseLong(value.trim()) : -1;
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring invalid {}{} value: {}", PARAM_PREFIX, key, value);
+            return -1;
+        }
+    }
+
+    private static String breakdown(CommandAuditor auditor) {
+        Map<String, Long> millis = auditor.getTestDriverMillisByPageMethod();
+        List<Map.Entry<String, Long>> counts = new ArrayList<>(auditor.getTestCommandsByPageMethod().entrySet());
+        // Chattiest methods first
+        counts.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : counts) {
+            parts.add(entry.getKey() + "=" + entry.getValue() + " commands/"
+                    + millis.getOrDefault(entry.getKey(), 0L) + "ms");
+        }
+        return String.join(", ", parts);
+    }
+
+    private static void emit(String testName, long commands, long maxCommands, long driverMillis,
+            long maxDriverMillis, boolean enforced) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("test", testName);
+        attributes.put("commands", String.valueOf(commands));
+        attributes.put("maxCommands", String.valueOf(maxCommands));
+        attributes.put("driverMs", String.valueOf(driverMillis));
+        attributes.put("maxDriverMs", String.valueOf(maxDriverMillis));
+        attributes.put("enforced", String.valueOf(enforced));
+        TestAnalyticsLogger.getInstance().logMetrics("webdriver.commands.budget", attributes);
+    }
+}
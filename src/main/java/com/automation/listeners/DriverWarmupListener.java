@@ -0,0 +1,66 @@
+package com.automation.listeners;
+
+import com.automation.analytics.TestAnalyticsLogger;
+import com.automation.config.CloudConfig;
+import com.automation.config.CloudConfig.ExecutionEnv;
+import com.automation.driver.DriverPool;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * TestNG suite listener that pre-warms the driver pool in parallel as soon as
+ * the suite starts, so workers lease a ready browser instead of each paying
+ * the startup cost serially in setUp.
+ *
+ * Only active for LOCAL runs with the session pool enabled. The number of
+ * sessions defaults to the suite thread-count and can be overridden with
+ * -Ddriver.pool.warmupSize. Cloud runs instead pre-connect to the hub, one
+ * connection per thread (-Dremote.http.preconnect to override).
+ */
+public class DriverWarmupListener implements ISuiteListener {
+
+    private static final Logger logger = LogManager.getLogger(DriverWarmupListener.class);
+
+    @Override
+    public void onStart(ISuite suite) {
+        XmlSuite xmlSuite = suite.getXmlSuite();
+        int threads = xmlSuite.getParallel() == XmlSuite.ParallelMode.NONE ? 1 : xmlSuite.getThreadCount();
+        if (CloudConfig.getExecutionEnv() != ExecutionEnv.LOCAL) {
+            CloudConfig.preconnect(Integer.getInteger("remote.http.preconnect", threads));
+            return;
+        }
+        if (!DriverPool.isEnabled()) {
+            return;
+        }
+
+        DriverPool pool = DriverPool.getInstance();
+        int size = Math.min(Integer.getInteger("driver.pool.warmupSize", threads), pool.getMaxSize());
+        String browser = resolveBrowser(xmlSuite);
+
+        logger.info("Pre-warming {} {} session(s) for suite: {}", size, browser, suite.getName());
+        pool.warmUp(browser, size).thenAccept(summary ->
+                TestAnalyticsLogger.getInstance().logMetrics("driver.warmup", summary));
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        // Pooled sessions are shut down by BaseTest at suite end
+    }
+
+    private String resolveBrowser(XmlSuite xmlSuite) {
+        String browser = xmlSuite.getParameter("browser");
+        if (browser == null) {
+            for (XmlTest test : xmlSuite.getTests()) {
+                browser = test.getParameter("browser");
+                if (browser != null) {
+                    break;
+                }
+            }
+        }
+        return browser != null ? browser : "chrome";
+    }
+}
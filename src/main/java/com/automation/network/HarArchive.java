@@ -0,0 +1,212 @@
+package com.automation.network;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk archive of recorded HTTP exchanges in HAR 1.2 format, indexed by
+ * method and URL so replay lookups stay O(1) regardless of recording size.
+ *
+ * Identical requests recorded more than once are replayed in recording order;
+ * once exhausted, the last recorded response keeps being served.
+ */
+public class HarArchive {
+
+    private final List<Exchange> entries = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Exchange>> index = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    /**
+     * Load an archive from disk, or return an empty one if the file does not exist.
+     */
+    public static HarArchive load(Path file) throws IOException {
+        HarArchive archive = new HarArchive();
+        if (!Files.exists(file)) {
+            return archive;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonObject root = new Gson().fromJson(reader, JsonObject.class);
+            for (JsonElement element : root.getAsJsonObject("log").getAsJsonArray("entries")) {
+                archive.add(Exchange.fromHar(element.getAsJsonObject()));
+            }
+        }
+        return archive;
+    }
+
+    public void add(Exchange exchange) {
+        entries.add(exchange);
+        index.computeIfAbsent(key(exchange.method, exchange.url), k -> new CopyOnWriteArrayList<>()).add(exchange);
+    }
+
+    /**
+     * Find the recorded response for a request, or null if it was never recorded.
+     */
+    public Exchange find(String method, String url) {
+        String key = key(method, url);
+        List<Exchange> matches = index.get(key);
+        if (matches == null || matches.isEmpty()) {
+            return null;
+        }
+        int position = cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        return matches.get(Math.min(position, matches.size() - 1));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void save(Path file) throws IOException {
+        JsonArray harEntries = new JsonArray();
+        for (Exchange exchange : entries) {
+            harEntries.add(exchange.toHar());
+        }
+        JsonObject creator = new JsonObject();
+        creator.addProperty("name", "selenium-pom-framework");
+        creator.addProperty("version", "1.0");
+        JsonObject log = new JsonObject();
+        log.addProperty("version", "1.2");
+        log.add("creator", creator);
+        log.add("entries", harEntries);
+        JsonObject root = new JsonObject();
+        root.add("log", log);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            new GsonBuilder().disableHtmlEscaping().create().toJson(root, writer);
+        }
+    }
+
+    private static String key(String method, String url) {
+        int fragment = url.indexOf('#');
+        return method.toUpperCase() + " " + (fragment >= 0 ? url.substring(0, fragment) : url);
+    }
+
+    /**
+     * A response header as recorded. Headers are kept as an ordered list of
+     * name/value pairs because some (Set-Cookie) repeat and cannot be joined.
+     */
+    public static Map.Entry<String, String> header(String name, String value) {
+        return new AbstractMap.SimpleImmutableEntry<>(name, value);
+    }
+
+    /**
+     * A single recorded request/response pair.
+     */
+    public static final class Exchange {
+        private final String method;
+        private final String url;
+        private final int status;
+        private final List<Map.Entry<String, String>> responseHeaders;
+        private final byte[] body;
+        private final String startedDateTime;
+
+        public Exchange(String method, String url, int status, List<Map.Entry<String, String>> responseHeaders,
+                        byte[] body) {
+            this(method, url, status, responseHeaders, body, Instant.now().toString());
+        }
+
+        private Exchange(String method, String url, int status, List<Map.Entry<String, String>> responseHeaders,
+                         byte[] body, String startedDateTime) {
+            this.method = method;
+            this.url = url;
+            this.status = status;
+            this.responseHeaders = Collections.unmodifiableList(new ArrayList<>(responseHeaders));
+            this.body = body;
+            this.startedDateTime = startedDateTime;
+        }
+
+        public String getMethod() { return method; }
+        public String getUrl() { return url; }
+        public int getStatus() { return status; }
+        public List<Map.Entry<String, String>> getResponseHeaders() { return responseHeaders; }
+        public byte[] getBody() { return body; }
+
+        /**
+         * First value of a response header (case-insensitive), or null.
+         */
+        public String getResponseHeader(String name) {
+            for (Map.Entry<String, String> header : responseHeaders) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    return header.getValue();
+                }
+            }
+            return null;
+        }
+
+        JsonObject toHar() {
+            JsonObject request = new JsonObject();
+            request.addProperty("method", method);
+            request.addProperty("url", url);
+            request.addProperty("httpVersion", "HTTP/1.1");
+            request.add("headers", new JsonArray());
+
+            JsonArray headers = new JsonArray();
+            for (Map.Entry<String, String> header : responseHeaders) {
+                JsonObject h = new JsonObject();
+                h.addProperty("name", header.getKey());
+                h.addProperty("value", header.getValue());
+                headers.add(h);
+            }
+            JsonObject content = new JsonObject();
+            content.addProperty("size", body.length);
+            String mimeType = getResponseHeader("Content-Type");
+            content.addProperty("mimeType", mimeType != null ? mimeType : "");
+            content.addProperty("text", Base64.getEncoder().encodeToString(body));
+            content.addProperty("encoding", "base64");
+            JsonObject response = new JsonObject();
+            response.addProperty("status", status);
+            response.addProperty("httpVersion", "HTTP/1.1");
+            response.add("headers", headers);
+            response.add("content", content);
+
+            JsonObject entry = new JsonObject();
+            entry.addProperty("startedDateTime", startedDateTime);
+            entry.add("request", request);
+            entry.add("response", response);
+            return entry;
+        }
+
+        static Exchange fromHar(JsonObject entry) {
+            JsonObject request = entry.getAsJsonObject("request");
+            JsonObject response = entry.getAsJsonObject("response");
+            List<Map.Entry<String, String>> headers = new ArrayList<>();
+            for (JsonElement element : response.getAsJsonArray("headers")) {
+                JsonObject h = element.getAsJsonObject();
+                headers.add(header(h.get("name").getAsString(), h.get("value").getAsString()));
+            }
+            JsonObject content = response.getAsJsonObject("content");
+            byte[] body = new byte[0];
+            if (content != null && content.has("text")) {
+                String text = content.get("text").getAsString();
+                body = content.has("encoding") && "base64".equals(content.get("encoding").getAsString())
+                        ? Base64.getDecoder().decode(text)
+                        : text.getBytes(StandardCharsets.UTF_8);
+            }
+            String started = entry.has("startedDateTime") ? entry.get("startedDateTime").getAsString() : "";
+            return new Exchange(request.get("method").getAsString(), request.get("url").getAsString(),
+                    response.get("status").getAsInt(), headers, body, started);
+        }
+    }
+}
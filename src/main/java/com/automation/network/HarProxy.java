@@ -0,0 +1,446 @@
+package com.automation.network;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-JVM HTTP(S) proxy that records every exchange to a HAR archive or replays
+ * responses from one, so UI tests can run without network access and with
+ * local, deterministic backend latency.
+ *
+ * Mode is selected with -Dhar.mode=record|replay and the archive location with
+ * -Dhar.archive (default target/har/recording.har). HTTPS is intercepted by
+ * terminating TLS with a self-signed certificate, so sessions must accept
+ * insecure certificates.
+ */
+public class HarProxy {
+
+    private static final Logger logger = LogManager.getLogger(HarProxy.class);
+    private static final String STORE_PASSWORD = "har-proxy";
+
+    // Hop-by-hop or computed headers that must not be copied between connections
+    private static final Set<String> SKIPPED_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-connection", "proxy-authorization", "transfer-encoding",
+            "content-length", "host", "upgrade", "expect", "te", "trailer"));
+
+    public enum Mode { RECORD, REPLAY }
+
+    private static HarProxy instance;
+
+    private final Mode mode;
+    private final Path archiveFile;
+    private final HarArchive archive;
+    private final HttpClient upstream;
+    private final ExecutorService workers;
+    private SSLContext sslContext;
+    private ServerSocket serverSocket;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong replayHits = new AtomicLong();
+    private final AtomicLong replayMisses = new AtomicLong();
+    private final AtomicLong totalLookupNanos = new AtomicLong();
+
+    public HarProxy(Mode mode, Path archiveFile) throws IOException {
+        this.mode = mode;
+        this.archiveFile = archiveFile;
+        this.archive = mode == Mode.REPLAY ? HarArchive.load(archiveFile) : new HarArchive();
+        this.upstream = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        this.workers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "har-proxy-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        if (mode == Mode.REPLAY) {
+            logger.info("HAR replay loaded {} recorded exchanges from {}", archive.size(), archiveFile);
+        }
+    }
+
+    /**
+     * Whether the proxy should be wired into local sessions.
+     */
+    public static boolean isEnabled() {
+        return getConfiguredMode() != null;
+    }
+
+    private static Mode getConfiguredMode() {
+        String mode = System.getProperty("har.mode", "off").toUpperCase(Locale.ROOT);
+        try {
+            return Mode.valueOf(mode);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The suite-wide proxy, started on first use and stopped at JVM exit.
+     */
+    public static synchronized HarProxy getInstance() {
+        if (instance == null) {
+            try {
+                Path archive = Paths.get(System.getProperty("har.archive", "target/har/recording.har"));
+                HarProxy proxy = new HarProxy(getConfiguredMode(), archive);
+                proxy.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(proxy::stop, "har-proxy-shutdown"));
+                instance = proxy;
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start HAR proxy", e);
+            }
+        }
+        return instance;
+    }
+
+    public synchronized void start() throws IOException {
+        serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "har-proxy-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("HAR proxy ({}) listening on {}", mode, getAddress());
+    }
+
+    /**
+     * Stop accepting connections and, in record mode, write the archive.
+     */
+    public synchronized void stop() {
+        if (serverSocket == null || serverSocket.isClosed()) {
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+        workers.shutdownNow();
+        if (mode == Mode.RECORD) {
+            try {
+                archive.save(archiveFile);
+                logger.info("HAR archive with {} exchanges written to {}", archive.size(), archiveFile.toAbsolutePath());
+            } catch (IOException e) {
+                logger.error("Failed to write HAR archive " + archiveFile, e);
+            }
+        }
+    }
+
+    /**
+     * host:port to use as the browser's HTTP and SSL proxy.
+     */
+    public String getAddress() {
+        return "127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        long lookups = replayHits.get() + replayMisses.get();
+        metrics.put("mode", mode.name().toLowerCase(Locale.ROOT));
+        metrics.put("archive", archiveFile.toString());
+        metrics.put("archiveEntries", String.valueOf(archive.size()));
+        metrics.put("requests", String.valueOf(requests.get()));
+        metrics.put("replayHits", String.valueOf(replayHits.get()));
+        metrics.put("replayMisses", String.valueOf(replayMisses.get()));
+        metrics.put("avgLookupMicros", String.valueOf(lookups == 0 ? 0
+                : TimeUnit.NANOSECONDS.toMicros(totalLookupNanos.get() / lookups)));
+        return metrics;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                workers.execute(() -> handleConnection(client));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("HAR proxy accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handleConnection(Socket client) {
+        try (Socket socket = client) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            ParsedRequest request = ParsedRequest.read(in);
+            if (request != null && "CONNECT".equals(request.method)) {
+                tunnel(socket, request.target);
+                return;
+            }
+            // Plain HTTP: absolute-URI requests, possibly several per keep-alive connection
+            while (request != null && serve(request, out, null)) {
+                request = ParsedRequest.read(in);
+            }
+        } catch (IOException e) {
+            logger.debug("HAR proxy connection closed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Terminate TLS for a CONNECT tunnel and serve the requests sent inside it.
+     */
+    private void tunnel(Socket socket, String authority) throws IOException {
+        OutputStream rawOut = socket.getOutputStream();
+        rawOut.write("HTTP/1.1 200 Connection Established\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        rawOut.flush();
+
+        String host = authority.contains(":") ? authority.substring(0, authority.lastIndexOf(':')) : authority;
+        SSLSocket tls = (SSLSocket) getSslContext().getSocketFactory()
+                .createSocket(socket, host, socket.getPort(), true);
+        tls.setUseClientMode(false);
+        tls.startHandshake();
+        String origin = "https://" + (authority.endsWith(":443") ? host : authority);
+
+        try (SSLSocket secure = tls) {
+            InputStream in = new BufferedInputStream(secure.getInputStream());
+            OutputStream out = secure.getOutputStream();
+            ParsedRequest request;
+            while ((request = ParsedRequest.read(in)) != null) {
+                if (!serve(request, out, origin)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Answer one request. Returns false when the connection should be closed.
+     */
+    private boolean serve(ParsedRequest request, OutputStream out, String origin) throws IOException {
+        requests.incrementAndGet();
+        String url = origin != null ? origin + request.target : request.target;
+        HarArchive.Exchange exchange;
+
+        if (mode == Mode.REPLAY) {
+            long start = System.nanoTime();
+            exchange = archive.find(request.method, url);
+            totalLookupNanos.addAndGet(System.nanoTime() - start);
+            if (exchange == null) {
+                replayMisses.incrementAndGet();
+                logger.debug("HAR replay miss: {} {}", request.method, url);
+                exchange = new HarArchive.Exchange(request.method, url, 404,
+                        List.of(HarArchive.header("Content-Type", "text/plain"), HarArchive.header("X-Har-Replay", "miss")),
+                        "Not recorded".getBytes(StandardCharsets.UTF_8));
+            } else {
+                replayHits.incrementAndGet();
+            }
+        } else {
+            exchange = forward(request, url);
+            archive.add(exchange);
+        }
+
+        writeResponse(out, exchange);
+        return !"close".equalsIgnoreCase(request.headers.get("Connection"))
+                && !"close".equalsIgnoreCase(request.headers.get("Proxy-Connection"));
+    }
+
+    private HarArchive.Exchange forward(ParsedRequest request, String url) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .method(request.method, request.body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(request.body));
+        for (Map.Entry<String, String> header : request.headers.entrySet()) {
+            if (!SKIPPED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                try {
+                    builder.header(header.getKey(), header.getValue());
+                } catch (IllegalArgumentException restricted) {
+                    // java.net.http manages this header itself
+                }
+            }
+        }
+        try {
+            HttpResponse<byte[]> response = upstream.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            // One entry per header line: Set-Cookie in particular cannot be comma-joined
+            List<Map.Entry<String, String>> headers = new ArrayList<>();
+            response.headers().map().forEach((name, values) -> {
+                if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    for (String value : values) {
+                        headers.add(HarArchive.header(name, value));
+                    }
+                }
+            });
+            return new HarArchive.Exchange(request.method, url, response.statusCode(), headers, response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while forwarding " + url, e);
+        }
+    }
+
+    private static void writeResponse(OutputStream out, HarArchive.Exchange exchange) throws IOException {
+        StringBuilder head = new StringBuilder();
+        head.append("HTTP/1.1 ").append(exchange.getStatus()).append(' ').append(reason(exchange.getStatus())).append("\r\n");
+        for (Map.Entry<String, String> header : exchange.getResponseHeaders()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        head.append("Content-Length: ").append(exchange.getBody().length).append("\r\n\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        out.write(exchange.getBody());
+        out.flush();
+    }
+
+    private static String reason(int status) {
+        return status >= 200 && status < 300 ? "OK" : status >= 300 && status < 400 ? "Redirect" : "Status";
+    }
+
+    /**
+     * Lazily create a self-signed certificate with the JDK's keytool, once per build.
+     */
+    private synchronized SSLContext getSslContext() throws IOException {
+        if (sslContext != null) {
+            return sslContext;
+        }
+        Path keyStore = Paths.get("target", "har-proxy.p12");
+        if (!Files.exists(keyStore)) {
+            Files.createDirectories(keyStore.getParent());
+            String keytool = Paths.get(System.getProperty("java.home"), "bin", "keytool").toString();
+            Process process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "har-proxy",
+                    "-keyalg", "RSA", "-keysize", "2048", "-validity", "3650",
+                    "-dname", "CN=har-proxy", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+                    "-storetype", "PKCS12", "-keystore", keyStore.toString(),
+                    "-storepass", STORE_PASSWORD, "-keypass", STORE_PASSWORD)
+                    .redirectErrorStream(true)
+                    .start();
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+            try {
+                if (process.waitFor() != 0) {
+                    throw new IOException("keytool could not generate the HAR proxy certificate");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while generating HAR proxy certificate", e);
+            }
+        }
+        try (InputStream in = Files.newInputStream(keyStore)) {
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            store.load(in, STORE_PASSWORD.toCharArray());
+            KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            kmf.init(store, STORE_PASSWORD.toCharArray());
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(kmf.getKeyManagers(), null, null);
+            sslContext = context;
+            return sslContext;
+        } catch (Exception e) {
+            throw new IOException("Failed to load HAR proxy certificate", e);
+        }
+    }
+
+    /**
+     * Minimal HTTP/1.1 request parser for proxy traffic.
+     */
+    static final class ParsedRequest {
+        private final String method;
+        private final String target;
+        private final Map<String, String> headers;
+        private final byte[] body;
+
+        private ParsedRequest(String method, String target, Map<String, String> headers, byte[] body) {
+            this.method = method;
+            this.target = target;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        static ParsedRequest read(InputStream in) throws IOException {
+            String requestLine = readLine(in);
+            if (requestLine == null || requestLine.isEmpty()) {
+                return null;
+            }
+            List<String> parts = Arrays.asList(requestLine.split(" "));
+            if (parts.size() < 2) {
+                throw new IOException("Malformed request line: " + requestLine);
+            }
+
+            Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+                }
+            }
+
+            byte[] body = new byte[0];
+            if ("chunked".equalsIgnoreCase(headers.get("Transfer-Encoding"))) {
+                body = readChunked(in);
+            } else if (headers.containsKey("Content-Length")) {
+                body = in.readNBytes(Integer.parseInt(headers.get("Content-Length")));
+            }
+            return new ParsedRequest(parts.get(0).toUpperCase(Locale.ROOT), parts.get(1), headers, body);
+        }
+
+        private static byte[] readChunked(InputStream in) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            while (true) {
+                String sizeLine = readLine(in);
+                if (sizeLine == null) {
+                    break;
+                }
+                int size = Integer.parseInt(sizeLine.split(";")[0].trim(), 16);
+                if (size == 0) {
+                    // Trailers end with an empty line
+                    String trailer;
+                    while ((trailer = readLine(in)) != null && !trailer.isEmpty()) {
+                        // Ignored
+                    }
+                    break;
+                }
+                body.write(in.readNBytes(size));
+                readLine(in);
+            }
+            return body.toByteArray();
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    break;
+                }
+                if (b != '\r') {
+                    line.write(b);
+                }
+            }
+            if (b == -1 && line.size() == 0) {
+                return null;
+            }
+            return line.toString(StandardCharsets.ISO_8859_1);
+        }
+    }
+}
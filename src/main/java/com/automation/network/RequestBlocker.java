@@ -0,0 +1,268 @@
+package com.automation.network;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Blocks or stubs third-party requests (ads, analytics, fonts, social widgets)
+ * for a browser session via CDP request interception.
+ *
+ * Enabled with -Dnetwork.blocking=true. A request is intercepted when its URL
+ * matches -Dnetwork.blocklist or, if -Dnetwork.allowlist is set, does not match
+ * the allowlist. Patterns are comma-separated globs where * matches anything;
+ * they are matched against the URL without its query string and fragment
+ * unless the pattern itself contains a '?'.
+ * -Dnetwork.blocking.mode=stub answers with an empty body of the right type;
+ * the default "block" mode answers 204 No Content.
+ *
+ * Bytes are counted for request bodies that were never uploaded (beacons,
+ * analytics posts). The size of the response that was avoided is unknown: a
+ * blocked request is answered before it reaches the server.
+ */
+public class RequestBlocker implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(RequestBlocker.class);
+
+    private static final String DEFAULT_BLOCKLIST = String.join(",",
+            "*doubleclick.net*", "*googlesyndication.com*", "*googleadservices.com*", "*adservice.google.*",
+            "*google-analytics.com*", "*googletagmanager.com*", "*googletagservices.com*",
+            "*fonts.googleapis.com*", "*fonts.gstatic.com*", "*use.typekit.net*",
+            "*facebook.net*", "*connect.facebook.*", "*platform.twitter.com*", "*platform.linkedin.com*",
+            "*hotjar.com*", "*quantserve.com*", "*scorecardresearch.com*", "*amazon-adsystem.com*");
+
+    private static final List<Glob> BLOCKLIST = compile(System.getProperty("network.blocklist", DEFAULT_BLOCKLIST));
+    private static final List<Glob> ALLOWLIST = compile(System.getProperty("network.allowlist", ""));
+    private static final boolean STUB_MODE = "stub".equalsIgnoreCase(System.getProperty("network.blocking.mode", "block"));
+
+    // Suite-wide totals
+    private static final AtomicLong totalBlocked = new AtomicLong();
+    private static final AtomicLong totalUploadBytesAvoided = new AtomicLong();
+    private static final AtomicLong totalStubResponseBytes = new AtomicLong();
+
+    private final NetworkInterceptor interceptor;
+    private final AtomicLong seen = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+    private final AtomicLong uploadBytesAvoided = new AtomicLong();
+    private final AtomicLong stubResponseBytes = new AtomicLong();
+
+    private RequestBlocker(WebDriver driver) {
+        // NetworkInterceptor reuses the driver's existing DevTools session, which stays bound to
+        // whichever target it first attached to; with per-test browser contexts that is not the
+        // window this test drives, so attach to the current window first
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSession(driver.getWindowHandle());
+        this.interceptor = new NetworkInterceptor(driver, this::handle);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("network.blocking", "false"));
+    }
+
+    /**
+     * Start intercepting requests for the driver's current window.
+     * Returns null if the browser does not support DevTools interception.
+     */
+    public static RequestBlocker attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            logger.warn("Network blocking requires a DevTools-capable browser, skipping for {}",
+                    driver.getClass().getSimpleName());
+            return null;
+        }
+        return new RequestBlocker(driver);
+    }
+
+    /**
+     * Whether a URL would be intercepted under the configured lists.
+     */
+    public static boolean shouldBlock(String url) {
+        if (url.startsWith("data:") || url.startsWith("about:") || url.startsWith("blob:")) {
+            return false;
+        }
+        if (matchesAny(BLOCKLIST, url)) {
+            return true;
+        }
+        return !ALLOWLIST.isEmpty() && !matchesAny(ALLOWLIST, url);
+    }
+
+    private HttpResponse handle(HttpRequest request) {
+        seen.incrementAndGet();
+        String url = request.getUri();
+        if (!shouldBlock(url)) {
+            return NetworkInterceptor.PROCEED_WITH_REQUEST;
+        }
+
+        blocked.incrementAndGet();
+        totalBlocked.incrementAndGet();
+        long uploadBytes = requestBodyBytes(request);
+        uploadBytesAvoided.addAndGet(uploadBytes);
+        totalUploadBytesAvoided.addAndGet(uploadBytes);
+        logger.debug("Blocked request: {}", url);
+        if (!STUB_MODE) {
+            return new HttpResponse().setStatus(204);
+        }
+
+        String body = stubBody(url);
+        stubResponseBytes.addAndGet(body.length());
+        totalStubResponseBytes.addAndGet(body.length());
+        HttpResponse response = new HttpResponse().setStatus(200);
+        response.setHeader("Content-Type", stubContentType(url));
+        response.setContent(Contents.utf8String(body));
+        return response;
+    }
+
+    /**
+     * Per-session counters for the analytics log.
+     */
+    public Map<String, String> getStats() {
+        Map<String, String> stats = new LinkedHashMap<>();
+        stats.put("mode", STUB_MODE ? "stub" : "block");
+        stats.put("requestsSeen", String.valueOf(seen.get()));
+        stats.put("requestsBlocked", String.valueOf(blocked.get()));
+        stats.put("uploadBytesAvoided", String.valueOf(uploadBytesAvoided.get()));
+        stats.put("stubResponseBytes", String.valueOf(stubResponseBytes.get()));
+        return stats;
+    }
+
+    public static Map<String, String> getSuiteStats() {
+        Map<String, String> stats = new LinkedHashMap<>();
+        stats.put("mode", STUB_MODE ? "stub" : "block");
+        stats.put("blocklistPatterns", String.valueOf(BLOCKLIST.size()));
+        stats.put("allowlistPatterns", String.valueOf(ALLOWLIST.size()));
+        stats.put("requestsBlocked", String.valueOf(totalBlocked.get()));
+        stats.put("uploadBytesAvoided", String.valueOf(totalUploadBytesAvoided.get()));
+        stats.put("stubResponseBytes", String.valueOf(totalStubResponseBytes.get()));
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        try {
+            interceptor.close();
+        } catch (Exception e) {
+            logger.debug("Error while closing network interceptor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Size of the request body the browser would have uploaded, from Content-Length
+     * when present, otherwise from the intercepted body itself.
+     */
+    static long requestBodyBytes(HttpRequest request) {
+        String declared = request.getHeader("Content-Length");
+        if (declared != null) {
+            try {
+                return Math.max(0, Long.parseLong(declared.trim()));
+            } catch (NumberFormatException e) {
+                // Fall back to the body
+            }
+        }
+        try {
+            return request.getContent().length();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static String stubBody(String url) {
+        String path = url.toLowerCase(Locale.ROOT);
+        if (path.contains(".js") || path.contains(".css")) {
+            return "/* blocked */";
+        }
+        if (path.contains(".json")) {
+            return "{}";
+        }
+        return "";
+    }
+
+    private static String stubContentType(String url) {
+        String path = url.toLowerCase(Locale.ROOT);
+        if (path.contains(".js")) {
+            return "application/javascript";
+        }
+        if (path.contains(".css")) {
+            return "text/css";
+        }
+        if (path.contains(".json")) {
+            return "application/json";
+        }
+        return "text/plain";
+    }
+
+    static boolean matchesAny(List<Glob> globs, String url) {
+        String withoutQuery = stripQuery(url);
+        for (Glob glob : globs) {
+            if (glob.pattern.matcher(glob.matchesQuery ? url : withoutQuery).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String stripQuery(String url) {
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = url.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        return url.substring(0, end);
+    }
+
+    static List<Glob> compile(String globs) {
+        if (globs == null || globs.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Glob> patterns = new ArrayList<>();
+        for (String glob : globs.split(",")) {
+            String trimmed = glob.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] parts = trimmed.split("\\*", -1);
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    regex.append(".*");
+                }
+                if (!parts[i].isEmpty()) {
+                    regex.append(Pattern.quote(parts[i]));
+                }
+            }
+            patterns.add(new Glob(Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE), trimmed.contains("?")));
+        }
+        return patterns;
+    }
+
+    /**
+     * A compiled pattern and whether it should see the query string.
+     */
+    static final class Glob {
+
+        final Pattern pattern;
+        final boolean matchesQuery;
+
+        Glob(Pattern pattern, boolean matchesQuery) {
+            this.pattern = pattern;
+            this.matchesQuery = matchesQuery;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.automation.pages;
 
 import com.automation.base.BasePage;
+import com.automation.base.PageReadiness;
 import io.qameta.allure.Step;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -8,21 +9,36 @@ import org.openqa.selenium.support.FindBy;
 
 public class DashboardPage extends BasePage {
 
-    // Page Elements
+    // Page Elements (package-private so the generated DashboardPageLocators can bind them)
     @FindBy(css = ".post-title")
-    private WebElement successMessage;
+    WebElement successMessage;
 
     @FindBy(linkText = "Log out")
-    private WebElement logoutButton;
+    WebElement logoutButton;
 
     @FindBy(css = ".has-text-align-center strong")
-    private WebElement welcomeMessage;
+    WebElement welcomeMessage;
 
     public DashboardPage(WebDriver driver) {
-        super(driver);
+        super(driver, DashboardPageLocators::bind);
         logger.info("DashboardPage initialized");
     }
 
+    @Override
+    protected PageReadiness readiness() {
+        return PageReadiness.builder()
+                .urlContains("logged-in-successfully")
+                .elementsPresent(".post-title")
+                .build();
+    }
+
+    @Step("Open dashboard page: {url}")
+    public DashboardPage open(String url) {
+        logger.info("Opening dashboard page: " + url);
+        navigateTo(url);
+        return this;
+    }
+
     @Step("Check if success message is displayed")
     public boolean isSuccessMessageDisplayed() {
         logger.info("Checking if success message is displayed");
@@ -1,31 +1,50 @@
 package com.automation.pages;
 
 import com.automation.base.BasePage;
+import com.automation.base.FormStep;
+import com.automation.base.PageReadiness;
 import io.qameta.allure.Step;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
+import java.util.Arrays;
+
 public class LoginPage extends BasePage {
 
-    // Page Elements
+    // Page Elements (package-private so the generated LoginPageLocators can bind them)
     @FindBy(id = "username")
-    private WebElement usernameField;
+    WebElement usernameField;
 
     @FindBy(id = "password")
-    private WebElement passwordField;
+    WebElement passwordField;
 
     @FindBy(id = "submit")
-    private WebElement submitButton;
+    WebElement submitButton;
 
     @FindBy(id = "error")
-    private WebElement errorMessage;
+    WebElement errorMessage;
 
     public LoginPage(WebDriver driver) {
-        super(driver);
+        super(driver, LoginPageLocators::bind);
         logger.info("LoginPage initialized");
     }
 
+    @Override
+    protected PageReadiness readiness() {
+        // The form is usable once its fields exist; images, fonts and trackers can keep loading
+        return PageReadiness.builder()
+                .elementsPresent("#username", "#password", "#submit")
+                .build();
+    }
+
+    @Step("Open login page: {url}")
+    public LoginPage open(String url) {
+        logger.info("Opening login page: " + url);
+        navigateTo(url);
+        return this;
+    }
+
     @Step("Enter username: {username}")
     public LoginPage enterUsername(String username) {
         logger.info("Entering username: " + username);
@@ -48,22 +67,28 @@ public class LoginPage extends BasePage {
 
     @Step("Login with username: {username} and password")
     public DashboardPage loginAs(String username, String password) {
-        enterUsername(username);
-        enterPassword(password);
-        clickSubmit();
+        submitCredentials(username, password);
         logger.info("Login attempted with username: " + username);
-        return new DashboardPage(driver);
+        DashboardPage dashboardPage = new DashboardPage(driver);
+        dashboardPage.waitUntilReady();
+        return dashboardPage;
     }
 
     @Step("Login with invalid credentials: {username}")
     public LoginPage loginWithInvalidCredentials(String username, String password) {
-        enterUsername(username);
-        enterPassword(password);
-        clickSubmit();
+        submitCredentials(username, password);
         logger.info("Login attempted with invalid credentials");
         return this;
     }
 
+    private void submitCredentials(String username, String password) {
+        // One script call for the whole form instead of wait/clear/type/click per field
+        fillForm(Arrays.asList(
+                FormStep.type("#username", username),
+                FormStep.type("#password", password),
+                FormStep.click("#submit")));
+    }
+
     @Step("Get error message")
     public String getErrorMessage() {
         logger.info("Getting error message");
@@ -76,6 +101,12 @@ public class LoginPage extends BasePage {
         return isElementDisplayed(errorMessage);
     }
 
+    @Step("Check that error message is not displayed")
+    public boolean isErrorMessageNotDisplayed() {
+        logger.info("Checking that error message is not displayed");
+        return isElementNotDisplayed(errorMessage);
+    }
+
     public boolean isUsernameFieldDisplayed() {
         return isElementDisplayed(usernameField);
     }
@@ -0,0 +1,216 @@
+package com.automation.state;
+
+import com.google.gson.Gson;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of a session's cookies plus localStorage and sessionStorage for one
+ * origin. Serialized to JSON by {@link StorageStateCache}.
+ */
+public class StorageState {
+
+    // Marks a tab as restored so the on-new-document script does not overwrite later changes
+    private static final String RESTORED_MARKER = "__storageStateRestored";
+
+    private static final String CAPTURE_SCRIPT =
+            "function dump(s) { var o = {}; for (var i = 0; i < s.length; i++) { var k = s.key(i);"
+            + "  if (k !== '" + RESTORED_MARKER + "') o[k] = s.getItem(k); } return o; }"
+            + "return { origin: location.origin, local: dump(localStorage), session: dump(sessionStorage) };";
+
+    private static final String APPLY_SCRIPT =
+            "function apply(origin, local, session) {"
+            + "  if (location.origin !== origin || sessionStorage.getItem('" + RESTORED_MARKER + "')) return false;"
+            + "  Object.keys(local).forEach(function (k) { localStorage.setItem(k, local[k]); });"
+            + "  Object.keys(session).forEach(function (k) { sessionStorage.setItem(k, session[k]); });"
+            + "  sessionStorage.setItem('" + RESTORED_MARKER + "', '1');"
+            + "  return true;"
+            + "}";
+
+    private String name;
+    private String origin;
+    private String capturedAt;
+    private List<StoredCookie> cookies = new ArrayList<>();
+    private Map<String, String> localStorage = new LinkedHashMap<>();
+    private Map<String, String> sessionStorage = new LinkedHashMap<>();
+
+    /**
+     * Capture the state of the page currently open in the driver. Chromium sessions
+     * include cookies for every domain; other browsers only the current one.
+     */
+    @SuppressWarnings("unchecked")
+    public static StorageState capture(String name, WebDriver driver) {
+        StorageState state = new StorageState();
+        state.name = name;
+        state.capturedAt = Instant.now().toString();
+
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        state.origin = (String) storage.get("origin");
+        ((Map<String, Object>) storage.get("local")).forEach((k, v) -> state.localStorage.put(k, String.valueOf(v)));
+        ((Map<String, Object>) storage.get("session")).forEach((k, v) -> state.sessionStorage.put(k, String.valueOf(v)));
+
+        if (driver instanceof HasCdp) {
+            Map<String, Object> result = ((HasCdp) driver).executeCdpCommand("Network.getAllCookies", Collections.emptyMap());
+            for (Map<String, Object> cookie : (List<Map<String, Object>>) result.get("cookies")) {
+                state.cookies.add(StoredCookie.fromCdp(cookie));
+            }
+        } else {
+            for (Cookie cookie : driver.manage().getCookies()) {
+                state.cookies.add(StoredCookie.fromSelenium(cookie));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Restore into a fresh session before its first navigation. On Chromium the
+     * storage is applied by a script that runs before the origin's first page
+     * loads; other browsers visit the origin root once to apply it.
+     *
+     * @return the identifier of the on-new-document script to pass to
+     *         {@link #removeRestoreScript} when the test ends, or null if none was added
+     */
+    @SuppressWarnings("unchecked")
+    public String restore(WebDriver driver) {
+        if (driver instanceof HasCdp) {
+            HasCdp cdp = (HasCdp) driver;
+            for (StoredCookie cookie : cookies) {
+                cdp.executeCdpCommand("Network.setCookie", cookie.toCdp());
+            }
+            cdp.executeCdpCommand("Page.enable", Collections.emptyMap());
+            Map<String, Object> added = cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("source", APPLY_SCRIPT + "apply(" + jsArgs() + ");"));
+            return added != null ? (String) added.get("identifier") : null;
+        }
+        driver.get(origin + "/");
+        for (StoredCookie cookie : cookies) {
+            if (cookie.matchesHost(driver.getCurrentUrl())) {
+                driver.manage().addCookie(cookie.toSelenium());
+            }
+        }
+        ((JavascriptExecutor) driver).executeScript(APPLY_SCRIPT + "return apply(arguments[0], arguments[1], arguments[2]);",
+                origin, localStorage, sessionStorage);
+        return null;
+    }
+
+    /**
+     * Stop applying a restored snapshot to new documents. Needed when the browser
+     * or context outlives the test (session pool, shared browser), otherwise the
+     * next test on it starts from this snapshot too.
+     */
+    public static void removeRestoreScript(WebDriver driver, String identifier) {
+        if (identifier != null && driver instanceof HasCdp) {
+            ((HasCdp) driver).executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("identifier", identifier));
+        }
+    }
+
+    private String jsArgs() {
+        Gson gson = new Gson();
+        return gson.toJson(origin) + ", " + gson.toJson(localStorage) + ", " + gson.toJson(sessionStorage);
+    }
+
+    public String getName() { return name; }
+    public String getOrigin() { return origin; }
+    public Instant getCapturedAt() { return Instant.parse(capturedAt); }
+    public List<StoredCookie> getCookies() { return Collections.unmodifiableList(cookies); }
+    public Map<String, String> getLocalStorage() { return Collections.unmodifiableMap(localStorage); }
+    public Map<String, String> getSessionStorage() { return Collections.unmodifiableMap(sessionStorage); }
+
+    /**
+     * Browser-neutral cookie record (expires is epoch seconds, -1 for session cookies).
+     */
+    public static class StoredCookie {
+        private String name;
+        private String value;
+        private String domain;
+        private String path;
+        private double expires = -1;
+        private boolean secure;
+        private boolean httpOnly;
+        private String sameSite;
+
+        static StoredCookie fromCdp(Map<String, Object> cdp) {
+            StoredCookie cookie = new StoredCookie();
+            cookie.name = (String) cdp.get("name");
+            cookie.value = (String) cdp.get("value");
+            cookie.domain = (String) cdp.get("domain");
+            cookie.path = (String) cdp.get("path");
+            Object expires = cdp.get("expires");
+            cookie.expires = expires instanceof Number ? ((Number) expires).doubleValue() : -1;
+            cookie.secure = Boolean.TRUE.equals(cdp.get("secure"));
+            cookie.httpOnly = Boolean.TRUE.equals(cdp.get("httpOnly"));
+            cookie.sameSite = (String) cdp.get("sameSite");
+            return cookie;
+        }
+
+        static StoredCookie fromSelenium(Cookie selenium) {
+            StoredCookie cookie = new StoredCookie();
+            cookie.name = selenium.getName();
+            cookie.value = selenium.getValue();
+            cookie.domain = selenium.getDomain();
+            cookie.path = selenium.getPath();
+            cookie.expires = selenium.getExpiry() != null ? selenium.getExpiry().getTime() / 1000.0 : -1;
+            cookie.secure = selenium.isSecure();
+            cookie.httpOnly = selenium.isHttpOnly();
+            cookie.sameSite = selenium.getSameSite();
+            return cookie;
+        }
+
+        Map<String, Object> toCdp() {
+            Map<String, Object> params = new HashMap<>();
+            params.put("name", name);
+            params.put("value", value);
+            params.put("domain", domain);
+            params.put("path", path != null ? path : "/");
+            params.put("secure", secure);
+            params.put("httpOnly", httpOnly);
+            if (expires > 0) {
+                params.put("expires", expires);
+            }
+            if (sameSite != null) {
+                params.put("sameSite", sameSite);
+            }
+            return params;
+        }
+
+        Cookie toSelenium() {
+            Cookie.Builder builder = new Cookie.Builder(name, value)
+                    .path(path != null ? path : "/")
+                    .isSecure(secure)
+                    .isHttpOnly(httpOnly);
+            if (domain != null) {
+                builder.domain(domain);
+            }
+            if (expires > 0) {
+                builder.expiresOn(new Date((long) (expires * 1000)));
+            }
+            if (sameSite != null) {
+                builder.sameSite(sameSite);
+            }
+            return builder.build();
+        }
+
+        boolean matchesHost(String url) {
+            String host = URI.create(url).getHost();
+            String bare = domain == null ? null : domain.startsWith(".") ? domain.substring(1) : domain;
+            return bare == null || host.equals(bare) || host.endsWith("." + bare);
+        }
+
+        public String getName() { return name; }
+        public String getValue() { return value; }
+        public String getDomain() { return domain; }
+    }
+}
@@ -0,0 +1,171 @@
+package com.automation.state;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keyed cache of storage-state snapshots: in memory for the current JVM and as
+ * JSON files under -Dstorage.state.dir (default target/storage-state) so later
+ * runs can reuse them. Snapshots older than -Dstorage.state.maxAgeMinutes
+ * (default 60) are treated as missing.
+ */
+public class StorageStateCache {
+
+    private static final Logger logger = LogManager.getLogger(StorageStateCache.class);
+
+    private static StorageStateCache instance;
+
+    private final Path directory;
+    private final Duration maxAge;
+    private final Gson gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting().create();
+    private final Map<String, StorageState> memory = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong captures = new AtomicLong();
+    private final AtomicLong restores = new AtomicLong();
+
+    public StorageStateCache(Path directory, Duration maxAge) {
+        this.directory = directory;
+        this.maxAge = maxAge;
+    }
+
+    public static synchronized StorageStateCache getInstance() {
+        if (instance == null) {
+            instance = new StorageStateCache(Paths.get(System.getProperty("storage.state.dir", "target/storage-state")),
+                    Duration.ofMinutes(Long.getLong("storage.state.maxAgeMinutes", 60)));
+        }
+        return instance;
+    }
+
+    /**
+     * Store a snapshot in memory and on disk.
+     */
+    public void put(String name, StorageState state) {
+        memory.put(name, state);
+        captures.incrementAndGet();
+        Path file = fileFor(name);
+        try {
+            Files.createDirectories(directory);
+            // Write then move, so parallel readers never see a half-written file
+            Path tmp = Files.createTempFile(directory, safeName(name), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                gson.toJson(state, writer);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write storage state '{}' to {}: {}", name, file, e.getMessage());
+        }
+    }
+
+    /**
+     * The snapshot for the name, from memory or disk, or null if missing or too old.
+     */
+    public StorageState get(String name) {
+        StorageState state = memory.get(name);
+        if (state != null && isFresh(state)) {
+            memoryHits.incrementAndGet();
+            return state;
+        }
+        state = readFromDisk(name);
+        if (state != null && isFresh(state)) {
+            memory.put(name, state);
+            diskHits.incrementAndGet();
+            return state;
+        }
+        memory.remove(name);
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Return the cached snapshot or build it once; concurrent callers for the same
+     * name wait for the first builder instead of building their own.
+     */
+    public StorageState computeIfAbsent(String name, Supplier<StorageState> builder) {
+        StorageState state = get(name);
+        if (state != null) {
+            return state;
+        }
+        synchronized (lockFor(name)) {
+            state = get(name);
+            if (state == null) {
+                logger.info("Building storage state '{}'", name);
+                state = builder.get();
+                put(name, state);
+            }
+            return state;
+        }
+    }
+
+    public void recordRestore() {
+        restores.incrementAndGet();
+    }
+
+    public void invalidate(String name) {
+        memory.remove(name);
+        try {
+            Files.deleteIfExists(fileFor(name));
+        } catch (IOException e) {
+            logger.warn("Could not delete storage state '{}': {}", name, e.getMessage());
+        }
+    }
+
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        metrics.put("captures", String.valueOf(captures.get()));
+        metrics.put("restores", String.valueOf(restores.get()));
+        metrics.put("memoryHits", String.valueOf(memoryHits.get()));
+        metrics.put("diskHits", String.valueOf(diskHits.get()));
+        metrics.put("misses", String.valueOf(misses.get()));
+        return metrics;
+    }
+
+    private Object lockFor(String name) {
+        return locks.computeIfAbsent(name, k -> new Object());
+    }
+
+    private boolean isFresh(StorageState state) {
+        return state.getCapturedAt().plus(maxAge).isAfter(Instant.now());
+    }
+
+    private StorageState readFromDisk(String name) {
+        Path file = fileFor(name);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, StorageState.class);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read storage state '{}' from {}: {}", name, file, e.getMessage());
+            return null;
+        }
+    }
+
+    private Path fileFor(String name) {
+        return directory.resolve(safeName(name) + ".json");
+    }
+
+    private static String safeName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
@@ -0,0 +1,20 @@
+package com.automation.state;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restore the named storage-state snapshot into the test's session before its
+ * first navigation. Tests run normally if the snapshot is not cached yet.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface WithStorageState {
+
+    /**
+     * Snapshot name, as passed to BaseTest.captureStorageState.
+     */
+    String value();
+}
@@ -0,0 +1,79 @@
+package com.automation.tracing;
+
+import com.automation.analytics.CommandAuditor;
+import com.automation.analytics.CommandLatencyRecorder;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * One CLIENT span per WebDriver command, child of whatever span is current on
+ * the calling thread (usually a page step or the test). Durations also feed
+ * the "webdriver.command.duration" histogram.
+ */
+public class CommandTracer implements WebDriverListener {
+
+    private final TestTracing tracing;
+    private final Tracer tracer;
+    private final ThreadLocal<Deque<Call>> inFlight = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public CommandTracer(TestTracing tracing) {
+        this.tracing = tracing;
+        this.tracer = tracing.getTracer();
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (CommandAuditor.isLocalCall(method)) {
+            return;
+        }
+        String command = CommandLatencyRecorder.commandName(target, method);
+        Span span = tracer.spanBuilder(command)
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute(TestTracing.COMMAND, command)
+                .startSpan();
+        inFlight.get().push(new Call(command, span));
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        if (!CommandAuditor.isLocalCall(method)) {
+            Call call = inFlight.get().poll();
+            if (call != null) {
+                call.span.end();
+                tracing.recordCommand(call.command, System.nanoTime() - call.startNanos, false);
+            }
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        if (!CommandAuditor.isLocalCall(method)) {
+            Call call = inFlight.get().poll();
+            if (call != null) {
+                call.span.recordException(e.getTargetException());
+                call.span.setStatus(StatusCode.ERROR, String.valueOf(e.getTargetException().getMessage()));
+                call.span.end();
+                tracing.recordCommand(call.command, System.nanoTime() - call.startNanos, true);
+            }
+        }
+    }
+
+    private static final class Call {
+        private final String command;
+        private final Span span;
+        private final long startNanos = System.nanoTime();
+
+        Call(String command, Span span) {
+            this.command = command;
+            this.span = span;
+        }
+    }
+}
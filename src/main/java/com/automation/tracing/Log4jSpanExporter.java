@@ -0,0 +1,42 @@
+package com.automation.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes one debug line per finished span to the framework log. Enough to
+ * follow a trace locally; {@link OtlpFileExporter} keeps complete traces.
+ */
+public class Log4jSpanExporter implements SpanExporter {
+
+    private static final Logger logger = LogManager.getLogger(Log4jSpanExporter.class);
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        if (logger.isDebugEnabled()) {
+            for (SpanData span : spans) {
+                logger.debug("span trace={} span={} parent={} name='{}' durationMs={} status={} {}",
+                        span.getTraceId(), span.getSpanId(), span.getParentSpanId(), span.getName(),
+                        TimeUnit.NANOSECONDS.toMillis(span.getEndEpochNanos() - span.getStartEpochNanos()),
+                        span.getStatus().getStatusCode(), span.getAttributes());
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,123 @@
+package com.automation.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline OTLP exporter for network-isolated runners: spans and metrics are
+ * written as OTLP/JSON lines to rotating files ({@code traces-NNNN.jsonl},
+ * {@code metrics-NNNN.jsonl}) under -Dotlp.file.dir (default target/otlp), to be
+ * pushed to a collector later with {@link OtlpReplay}.
+ *
+ * Each signal has a bounded queue (-Dotlp.file.queueSize, default 1024
+ * batches); batches that do not fit are dropped and counted instead of
+ * blocking. Files rotate at -Dotlp.file.maxBytes (10 MB) and the newest
+ * -Dotlp.file.maxFiles (20) per signal are kept.
+ */
+public class OtlpFileExporter {
+
+    private static final long FLUSH_TIMEOUT_SECONDS = 10;
+
+    private final OtlpFileWriter traces;
+    private final OtlpFileWriter metrics;
+
+    public OtlpFileExporter(Path directory, int queueSize, long maxFileBytes, int maxFiles) {
+        this.traces = new OtlpFileWriter(directory, "traces", queueSize, maxFileBytes, maxFiles);
+        this.metrics = new OtlpFileWriter(directory, "metrics", queueSize, maxFileBytes, maxFiles);
+    }
+
+    public static OtlpFileExporter fromSystemProperties() {
+        return new OtlpFileExporter(
+                Paths.get(System.getProperty("otlp.file.dir", "target/otlp")),
+                Integer.getInteger("otlp.file.queueSize", 1024),
+                Long.getLong("otlp.file.maxBytes", 10L * 1024 * 1024),
+                Integer.getInteger("otlp.file.maxFiles", 20));
+    }
+
+    public SpanExporter spanExporter() {
+        return new Spans();
+    }
+
+    public MetricExporter metricExporter() {
+        return new Metrics();
+    }
+
+    /**
+     * Batches written, dropped and file rotations per signal.
+     */
+    public Map<String, String> getMetrics() {
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("traces.written", String.valueOf(traces.getWritten()));
+        result.put("traces.dropped", String.valueOf(traces.getDropped()));
+        result.put("traces.rotations", String.valueOf(traces.getRotations()));
+        result.put("metrics.written", String.valueOf(metrics.getWritten()));
+        result.put("metrics.dropped", String.valueOf(metrics.getDropped()));
+        result.put("metrics.rotations", String.valueOf(metrics.getRotations()));
+        return result;
+    }
+
+    private static CompletableResultCode offerTo(OtlpFileWriter writer, String document) {
+        return writer.offer(document) ? CompletableResultCode.ofSuccess() : CompletableResultCode.ofFailure();
+    }
+
+    private static CompletableResultCode flushWriter(OtlpFileWriter writer) {
+        return writer.flush(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                ? CompletableResultCode.ofSuccess() : CompletableResultCode.ofFailure();
+    }
+
+    private static CompletableResultCode closeWriter(OtlpFileWriter writer) {
+        writer.close(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private class Spans implements SpanExporter {
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            return offerTo(traces, OtlpJson.encodeSpans(spans));
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return flushWriter(traces);
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return closeWriter(traces);
+        }
+    }
+
+    private class Metrics implements MetricExporter {
+        @Override
+        public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+            return AggregationTemporality.CUMULATIVE;
+        }
+
+        @Override
+        public CompletableResultCode export(Collection<MetricData> data) {
+            return offerTo(metrics, OtlpJson.encodeMetrics(data));
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return flushWriter(metrics);
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return closeWriter(metrics);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.automation.tracing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Appends OTLP/JSON documents, one per line, to size-rotated files
+ * ({@code <signal>-0001.jsonl}, {@code <signal>-0002.jsonl}, ...) from a single
+ * daemon thread. Callers only enqueue: when the bounded queue is full the
+ * document is dropped and counted, so exporting never blocks.
+ */
+class OtlpFileWriter {
+
+    private static final Logger logger = LogManager.getLogger(OtlpFileWriter.class);
+
+    private final Path directory;
+    private final String signal;
+    private final Pattern filePattern;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final BlockingQueue<String> queue;
+    private final Thread worker;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong rotations = new AtomicLong();
+    // Documents accepted but not yet on disk
+    private final AtomicLong pending = new AtomicLong();
+    private volatile boolean closed;
+
+    private BufferedWriter out;
+    private Path currentFile;
+    private long currentBytes;
+    private int sequence;
+
+    OtlpFileWriter(Path directory, String signal, int queueCapacity, long maxFileBytes, int maxFiles) {
+        this.directory = directory;
+        this.signal = signal;
+        this.filePattern = Pattern.compile(Pattern.quote(signal) + "-(\\d+)\\.jsonl");
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.worker = new Thread(this::run, "otlp-file-" + signal);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queue one document. Returns false (and counts a drop) if the queue is full or the writer is closed.
+     */
+    boolean offer(String document) {
+        pending.incrementAndGet();
+        if (closed || !queue.offer(document)) {
+            pending.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Wait until everything queued so far is on disk, up to the timeout.
+     */
+    boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (pending.get() > 0 && worker.isAlive()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write what is queued, then stop the worker and close the current file.
+     */
+    void close(long timeout, TimeUnit unit) {
+        closed = true;
+        try {
+            worker.join(unit.toMillis(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long getWritten() {
+        return written.get();
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    long getRotations() {
+        return rotations.get();
+    }
+
+    private void run() {
+        List<String> batch = new ArrayList<>();
+        try {
+            while (!closed || !queue.isEmpty()) {
+                String first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch);
+                for (String document : batch) {
+                    write(document);
+                }
+                out.flush();
+                pending.addAndGet(-batch.size());
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.error("OTLP file export for {} stopped: {}", signal, e.getMessage());
+            closed = true;
+            dropped.addAndGet(batch.size() + queue.size());
+            queue.clear();
+        } finally {
+            pending.set(0);
+            closeFile();
+        }
+    }
+
+    private void write(String document) throws IOException {
+        byte[] line = (document + "\n").getBytes(StandardCharsets.UTF_8);
+        if (out == null || (currentBytes > 0 && currentBytes + line.length > maxFileBytes)) {
+            rotate();
+        }
+        out.write(document);
+        out.write('\n');
+        currentBytes += line.length;
+        written.incrementAndGet();
+    }
+
+    private void rotate() throws IOException {
+        if (out != null) {
+            closeFile();
+            rotations.incrementAndGet();
+        } else {
+            Files.createDirectories(directory);
+            // Continue after files left by earlier runs so nothing is overwritten before it is replayed
+            sequence = existingSequences().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+        sequence++;
+        currentFile = directory.resolve(String.format("%s-%04d.jsonl", signal, sequence));
+        out = Files.newBufferedWriter(currentFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        currentBytes = Files.size(currentFile);
+        pruneOldFiles();
+    }
+
+    private void pruneOldFiles() throws IOException {
+        List<Integer> sequences = existingSequences();
+        sequences.sort(null);
+        for (int i = 0; i < sequences.size() - maxFiles; i++) {
+            Files.deleteIfExists(directory.resolve(String.format("%s-%04d.jsonl", signal, sequences.get(i))));
+        }
+    }
+
+    private List<Integer> existingSequences() throws IOException {
+        List<Integer> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher m = filePattern.matcher(file.getFileName().toString());
+                if (m.matches()) {
+                    sequences.add(Integer.parseInt(m.group(1)));
+                }
+            });
+        }
+        return sequences;
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close {}: {}", currentFile, e.getMessage());
+            }
+            out = null;
+        }
+    }
+}
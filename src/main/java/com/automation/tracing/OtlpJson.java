@@ -0,0 +1,289 @@
+package com.automation.tracing;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.metrics.data.SumData;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes spans and metrics as OTLP/JSON export requests
+ * (ExportTraceServiceRequest / ExportMetricsServiceRequest), one compact JSON
+ * document per batch, as accepted by a collector's OTLP/HTTP receiver.
+ */
+final class OtlpJson {
+
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+    private OtlpJson() {
+    }
+
+    static String encodeSpans(Collection<SpanData> spans) {
+        Map<Resource, Map<InstrumentationScopeInfo, JsonArray>> grouped = new LinkedHashMap<>();
+        for (SpanData span : spans) {
+            grouped.computeIfAbsent(span.getResource(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(span.getInstrumentationScopeInfo(), k -> new JsonArray())
+                    .add(span(span));
+        }
+        JsonArray resourceSpans = new JsonArray();
+        grouped.forEach((resource, scopes) -> {
+            JsonArray scopeSpans = new JsonArray();
+            scopes.forEach((scope, items) -> {
+                JsonObject entry = new JsonObject();
+                entry.add("scope", scope(scope));
+                entry.add("spans", items);
+                scopeSpans.add(entry);
+            });
+            JsonObject entry = new JsonObject();
+            entry.add("resource", resource(resource));
+            entry.add("scopeSpans", scopeSpans);
+            resourceSpans.add(entry);
+        });
+        JsonObject request = new JsonObject();
+        request.add("resourceSpans", resourceSpans);
+        return gson.toJson(request);
+    }
+
+    static String encodeMetrics(Collection<MetricData> metrics) {
+        Map<Resource, Map<InstrumentationScopeInfo, JsonArray>> grouped = new LinkedHashMap<>();
+        for (MetricData metric : metrics) {
+            JsonObject encoded = metric(metric);
+            if (encoded != null) {
+                grouped.computeIfAbsent(metric.getResource(), k -> new LinkedHashMap<>())
+                        .computeIfAbsent(metric.getInstrumentationScopeInfo(), k -> new JsonArray())
+                        .add(encoded);
+            }
+        }
+        JsonArray resourceMetrics = new JsonArray();
+        grouped.forEach((resource, scopes) -> {
+            JsonArray scopeMetrics = new JsonArray();
+            scopes.forEach((scope, items) -> {
+                JsonObject entry = new JsonObject();
+                entry.add("scope", scope(scope));
+                entry.add("metrics", items);
+                scopeMetrics.add(entry);
+            });
+            JsonObject entry = new JsonObject();
+            entry.add("resource", resource(resource));
+            entry.add("scopeMetrics", scopeMetrics);
+            resourceMetrics.add(entry);
+        });
+        JsonObject request = new JsonObject();
+        request.add("resourceMetrics", resourceMetrics);
+        return gson.toJson(request);
+    }
+
+    private static JsonObject span(SpanData span) {
+        JsonObject json = new JsonObject();
+        json.addProperty("traceId", span.getTraceId());
+        json.addProperty("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            json.addProperty("parentSpanId", span.getParentSpanId());
+        }
+        json.addProperty("name", span.getName());
+        // OTLP numbers span kinds from 1 in the same order as the API enum
+        json.addProperty("kind", span.getKind().ordinal() + 1);
+        json.addProperty("startTimeUnixNano", String.valueOf(span.getStartEpochNanos()));
+        json.addProperty("endTimeUnixNano", String.valueOf(span.getEndEpochNanos()));
+        json.add("attributes", attributes(span.getAttributes()));
+        JsonArray events = new JsonArray();
+        for (EventData event : span.getEvents()) {
+            JsonObject encoded = new JsonObject();
+            encoded.addProperty("timeUnixNano", String.valueOf(event.getEpochNanos()));
+            encoded.addProperty("name", event.getName());
+            encoded.add("attributes", attributes(event.getAttributes()));
+            events.add(encoded);
+        }
+        json.add("events", events);
+        JsonObject status = new JsonObject();
+        // UNSET, OK, ERROR map to 0, 1, 2
+        status.addProperty("code", span.getStatus().getStatusCode().ordinal());
+        if (!span.getStatus().getDescription().isEmpty()) {
+            status.addProperty("message", span.getStatus().getDescription());
+        }
+        json.add("status", status);
+        return json;
+    }
+
+    private static JsonObject metric(MetricData metric) {
+        JsonObject json = new JsonObject();
+        json.addProperty("name", metric.getName());
+        json.addProperty("description", metric.getDescription());
+        json.addProperty("unit", metric.getUnit());
+        switch (metric.getType()) {
+            case LONG_SUM:
+                json.add("sum", sum(metric.getLongSumData()));
+                break;
+            case DOUBLE_SUM:
+                json.add("sum", sum(metric.getDoubleSumData()));
+                break;
+            case LONG_GAUGE:
+                json.add("gauge", gauge(metric.getLongGaugeData().getPoints()));
+                break;
+            case DOUBLE_GAUGE:
+                json.add("gauge", gauge(metric.getDoubleGaugeData().getPoints()));
+                break;
+            case HISTOGRAM:
+                json.add("histogram", histogram(metric.getHistogramData().getPoints(),
+                        metric.getHistogramData().getAggregationTemporality()));
+                break;
+            default:
+                // Summaries and exponential histograms are not produced by this framework
+                return null;
+        }
+        return json;
+    }
+
+    private static JsonObject sum(SumData<? extends PointData> data) {
+        JsonObject json = new JsonObject();
+        json.add("dataPoints", numberPoints(data.getPoints()));
+        json.addProperty("aggregationTemporality", temporality(data.getAggregationTemporality()));
+        json.addProperty("isMonotonic", data.isMonotonic());
+        return json;
+    }
+
+    private static JsonObject gauge(Collection<? extends PointData> points) {
+        JsonObject json = new JsonObject();
+        json.add("dataPoints", numberPoints(points));
+        return json;
+    }
+
+    private static JsonArray numberPoints(Collection<? extends PointData> points) {
+        JsonArray array = new JsonArray();
+        for (PointData point : points) {
+            JsonObject json = point(point);
+            if (point instanceof LongPointData) {
+                json.addProperty("asInt", String.valueOf(((LongPointData) point).getValue()));
+            } else if (point instanceof DoublePointData) {
+                json.addProperty("asDouble", ((DoublePointData) point).getValue());
+            }
+            array.add(json);
+        }
+        return array;
+    }
+
+    private static JsonObject histogram(Collection<HistogramPointData> points, AggregationTemporality temporality) {
+        JsonArray array = new JsonArray();
+        for (HistogramPointData point : points) {
+            JsonObject json = point(point);
+            json.addProperty("count", String.valueOf(point.getCount()));
+            json.addProperty("sum", point.getSum());
+            json.add("bucketCounts", longs(point.getCounts()));
+            JsonArray bounds = new JsonArray();
+            point.getBoundaries().forEach(bounds::add);
+            json.add("explicitBounds", bounds);
+            if (point.hasMin()) {
+                json.addProperty("min", point.getMin());
+            }
+            if (point.hasMax()) {
+                json.addProperty("max", point.getMax());
+            }
+            array.add(json);
+        }
+        JsonObject json = new JsonObject();
+        json.add("dataPoints", array);
+        json.addProperty("aggregationTemporality", temporality(temporality));
+        return json;
+    }
+
+    private static JsonObject point(PointData point) {
+        JsonObject json = new JsonObject();
+        json.add("attributes", attributes(point.getAttributes()));
+        json.addProperty("startTimeUnixNano", String.valueOf(point.getStartEpochNanos()));
+        json.addProperty("timeUnixNano", String.valueOf(point.getEpochNanos()));
+        return json;
+    }
+
+    private static int temporality(AggregationTemporality temporality) {
+        return temporality == AggregationTemporality.DELTA ? 1 : 2;
+    }
+
+    private static JsonArray longs(List<Long> values) {
+        JsonArray array = new JsonArray();
+        values.forEach(v -> array.add(String.valueOf(v)));
+        return array;
+    }
+
+    private static JsonObject resource(Resource resource) {
+        JsonObject json = new JsonObject();
+        json.add("attributes", attributes(resource.getAttributes()));
+        return json;
+    }
+
+    private static JsonObject scope(InstrumentationScopeInfo scope) {
+        JsonObject json = new JsonObject();
+        json.addProperty("name", scope.getName());
+        if (scope.getVersion() != null) {
+            json.addProperty("version", scope.getVersion());
+        }
+        return json;
+    }
+
+    private static JsonArray attributes(Attributes attributes) {
+        JsonArray array = new JsonArray();
+        attributes.forEach((key, value) -> {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("key", key.getKey());
+            entry.add("value", anyValue(key, value));
+            array.add(entry);
+        });
+        return array;
+    }
+
+    private static JsonObject anyValue(AttributeKey<?> key, Object value) {
+        JsonObject json = new JsonObject();
+        switch (key.getType()) {
+            case BOOLEAN:
+                json.addProperty("boolValue", (Boolean) value);
+                break;
+            case LONG:
+                json.addProperty("intValue", String.valueOf(value));
+                break;
+            case DOUBLE:
+                json.addProperty("doubleValue", (Double) value);
+                break;
+            case STRING_ARRAY:
+            case BOOLEAN_ARRAY:
+            case LONG_ARRAY:
+            case DOUBLE_ARRAY:
+                JsonArray values = new JsonArray();
+                for (Object item : (List<?>) value) {
+                    JsonObject element = new JsonObject();
+                    if (item instanceof Boolean) {
+                        element.addProperty("boolValue", (Boolean) item);
+                    } else if (item instanceof Long) {
+                        element.addProperty("intValue", String.valueOf(item));
+                    } else if (item instanceof Double) {
+                        element.addProperty("doubleValue", (Double) item);
+                    } else {
+                        element.addProperty("stringValue", String.valueOf(item));
+                    }
+                    values.add(element);
+                }
+                JsonObject arrayValue = new JsonObject();
+                arrayValue.add("values", values);
+                json.add("arrayValue", arrayValue);
+                break;
+            default:
+                json.addProperty("stringValue", String.valueOf(value));
+        }
+        return json;
+    }
+}
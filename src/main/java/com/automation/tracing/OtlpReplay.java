@@ -0,0 +1,141 @@
+package com.automation.tracing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Pushes files written by {@link OtlpFileExporter} to a collector's OTLP/HTTP
+ * receiver: each line of {@code traces-*.jsonl} is POSTed to /v1/traces and each
+ * line of {@code metrics-*.jsonl} to /v1/metrics, relative to the endpoint's
+ * path. Fully sent files are renamed to {@code *.jsonl.replayed} so a second
+ * run does not send them again; a partly sent file is rewritten to hold only
+ * the lines that failed, so those are the only ones sent next time.
+ *
+ * Usage: OtlpReplay [dir (target/otlp)] [endpoint (http://localhost:4318)]
+ */
+public class OtlpReplay {
+
+    private static final Logger logger = LogManager.getLogger(OtlpReplay.class);
+
+    private final HttpClient client;
+    private final URI endpoint;
+
+    public OtlpReplay(URI endpoint) {
+        this.endpoint = endpoint;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "target/otlp");
+        URI endpoint = URI.create(args.length > 1 ? args[1] : "http://localhost:4318");
+        Map<String, Long> result = new OtlpReplay(endpoint).replay(dir);
+        logger.info("Replayed {} to {}: {}", dir, endpoint, result);
+        if (result.get("failed") > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Send every pending file in the directory, oldest first. Returns counts of
+     * documents sent and failed and files completed.
+     */
+    public Map<String, Long> replay(Path dir) throws IOException {
+        long sent = 0;
+        long failed = 0;
+        long files = 0;
+        for (Path file : pendingFiles(dir)) {
+            String name = file.getFileName().toString();
+            URI target = signalUri(endpoint, name.startsWith("traces-") ? "traces" : "metrics");
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            List<String> unsent = new ArrayList<>();
+            for (String line : lines) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (post(target, line)) {
+                    sent++;
+                } else {
+                    failed++;
+                    unsent.add(line);
+                }
+            }
+            if (unsent.isEmpty()) {
+                Files.move(file, file.resolveSibling(name + ".replayed"), StandardCopyOption.REPLACE_EXISTING);
+                files++;
+            } else if (unsent.size() < lines.size()) {
+                // Keep only what the collector has not accepted, or the next run would duplicate the rest
+                Path rewritten = file.resolveSibling(name + ".tmp");
+                Files.write(rewritten, unsent, StandardCharsets.UTF_8);
+                Files.move(rewritten, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("sent", sent);
+        result.put("failed", failed);
+        result.put("files", files);
+        return result;
+    }
+
+    /**
+     * The OTLP/HTTP path for a signal under the endpoint, keeping any base path
+     * ("http://host/otel" sends traces to "http://host/otel/v1/traces").
+     */
+    static URI signalUri(URI endpoint, String signal) {
+        String base = endpoint.toString();
+        while (base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        return URI.create(base + "/v1/" + signal);
+    }
+
+    private boolean post(URI target, String document) {
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(document, StandardCharsets.UTF_8))
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 == 2) {
+                return true;
+            }
+            logger.warn("Collector rejected batch for {}: HTTP {} {}", target, response.statusCode(), response.body());
+        } catch (IOException e) {
+            logger.warn("Failed to send batch to {}: {}", target, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private static List<Path> pendingFiles(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().matches("(traces|metrics)-\\d+\\.jsonl"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
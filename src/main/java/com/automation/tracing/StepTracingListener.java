@@ -0,0 +1,78 @@
+package com.automation.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Opens a span for every Allure step ({@code @Step} methods on page objects),
+ * as a child of the current test or step span. Registered through
+ * META-INF/services so Allure loads it with its other lifecycle listeners.
+ */
+public class StepTracingListener implements StepLifecycleListener {
+
+    private static final AttributeKey<String> STEP_STATUS = AttributeKey.stringKey("step.status");
+
+    private final Supplier<TestTracing> tracing;
+    // Steps nest strictly on a thread, so spans open and close in stack order
+    private final ThreadLocal<Deque<StepSpan>> open = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public StepTracingListener() {
+        // Resolved per step: Allure instantiates listeners before any test runs
+        this(TestTracing::getInstance);
+    }
+
+    StepTracingListener(Supplier<TestTracing> tracing) {
+        this.tracing = tracing;
+    }
+
+    @Override
+    public void afterStepStart(StepResult result) {
+        if (!TestTracing.isEnabled()) {
+            return;
+        }
+        TestTracing current = tracing.get();
+        Span span = current.getTracer().spanBuilder(result.getName()).startSpan();
+        open.get().push(new StepSpan(result, span, span.makeCurrent()));
+        current.recordStep();
+    }
+
+    @Override
+    public void beforeStepStop(StepResult result) {
+        Deque<StepSpan> steps = open.get();
+        if (steps.isEmpty() || steps.peek().result != result) {
+            return;
+        }
+        StepSpan step = steps.pop();
+        step.scope.close();
+        Status status = result.getStatus();
+        if (status != null) {
+            step.span.setAttribute(STEP_STATUS, status.value());
+            if (status == Status.FAILED || status == Status.BROKEN) {
+                String message = result.getStatusDetails() != null ? result.getStatusDetails().getMessage() : null;
+                step.span.setStatus(StatusCode.ERROR, message != null ? message : status.value());
+            }
+        }
+        step.span.end();
+    }
+
+    private static final class StepSpan {
+        private final StepResult result;
+        private final Span span;
+        private final Scope scope;
+
+        StepSpan(StepResult result, Span span, Scope scope) {
+            this.result = result;
+            this.span = span;
+            this.scope = scope;
+        }
+    }
+}
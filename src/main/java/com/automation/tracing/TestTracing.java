@@ -0,0 +1,223 @@
+package com.automation.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OpenTelemetry tracing for test runs. Each test gets a root span (opened in
+ * BaseTest.setUp, closed at the end of tearDown) that is current on the test's
+ * thread, so Allure {@code @Step} spans (StepTracingListener) and WebDriver
+ * command spans (CommandTracer) nest under it.
+ *
+ * Spans and metrics (command duration histogram, test run counter, span
+ * processor drops) go to the offline OTLP file exporter by default;
+ * -Dtracing.exporter=log writes spans to the debug log instead.
+ *
+ * Uses its own SDK instance rather than GlobalOpenTelemetry so Selenium's
+ * internal tracing is unaffected. Disable with -Dtracing.enabled=false.
+ */
+public class TestTracing {
+
+    private static final Logger logger = LogManager.getLogger(TestTracing.class);
+    private static final String INSTRUMENTATION_NAME = "com.automation";
+
+    public static final AttributeKey<String> TEST_NAME = AttributeKey.stringKey("test.name");
+    public static final AttributeKey<String> TEST_CLASS = AttributeKey.stringKey("test.class");
+    public static final AttributeKey<String> TEST_STATUS = AttributeKey.stringKey("test.status");
+    public static final AttributeKey<String> BROWSER = AttributeKey.stringKey("browser.name");
+    public static final AttributeKey<String> EXECUTION_ENV = AttributeKey.stringKey("execution.env");
+    public static final AttributeKey<String> SESSION_ID = AttributeKey.stringKey("webdriver.session.id");
+    public static final AttributeKey<String> COMMAND = AttributeKey.stringKey("webdriver.command");
+    public static final AttributeKey<Boolean> ERROR = AttributeKey.booleanKey("error");
+
+    private static TestTracing instance;
+
+    private final SdkTracerProvider tracerProvider;
+    private final SdkMeterProvider meterProvider;
+    private final Tracer tracer;
+    private final DoubleHistogram commandDuration;
+    private final LongCounter testRuns;
+    private final OtlpFileExporter fileExporter;
+    private final ThreadLocal<TestSpan> currentTest = new ThreadLocal<>();
+    private final AtomicLong tests = new AtomicLong();
+    private final AtomicLong steps = new AtomicLong();
+    private final AtomicLong commands = new AtomicLong();
+
+    TestTracing(SpanExporter spanExporter, MetricExporter metricExporter) {
+        this(spanExporter, metricExporter, null);
+    }
+
+    private TestTracing(SpanExporter spanExporter, MetricExporter metricExporter, OtlpFileExporter fileExporter) {
+        this.fileExporter = fileExporter;
+        Resource resource = Resource.getDefault().merge(Resource.create(Attributes.of(
+                AttributeKey.stringKey("service.name"), System.getProperty("test.service", "selenium-ui-tests"),
+                AttributeKey.stringKey("deployment.environment"), System.getProperty("test.environment", "local"))));
+        this.meterProvider = metricExporter == null ? null : SdkMeterProvider.builder()
+                .setResource(resource)
+                .registerMetricReader(PeriodicMetricReader.builder(metricExporter)
+                        .setInterval(Duration.ofSeconds(Long.getLong("otlp.metrics.intervalSeconds", 60)))
+                        .build())
+                .build();
+        MeterProvider meters = meterProvider != null ? meterProvider : MeterProvider.noop();
+        // Test threads only enqueue into the processor's bounded queue; full queues drop (and count) spans
+        this.tracerProvider = SdkTracerProvider.builder()
+                .setResource(resource)
+                .addSpanProcessor(BatchSpanProcessor.builder(spanExporter)
+                        .setMaxQueueSize(Integer.getInteger("otlp.span.queueSize", 2048))
+                        .setMeterProvider(meters)
+                        .build())
+                .build();
+        this.tracer = tracerProvider.get(INSTRUMENTATION_NAME);
+        Meter meter = meters.get(INSTRUMENTATION_NAME);
+        this.commandDuration = meter.histogramBuilder("webdriver.command.duration")
+                .setDescription("WebDriver command latency")
+                .setUnit("ms")
+                .build();
+        this.testRuns = meter.counterBuilder("test.runs")
+                .setDescription("Finished tests by status")
+                .build();
+    }
+
+    public static synchronized TestTracing getInstance() {
+        if (instance == null) {
+            if ("log".equalsIgnoreCase(System.getProperty("tracing.exporter", "file"))) {
+                instance = new TestTracing(new Log4jSpanExporter(), null);
+            } else {
+                OtlpFileExporter files = OtlpFileExporter.fromSystemProperties();
+                instance = new TestTracing(files.spanExporter(), files.metricExporter(), files);
+            }
+        }
+        return instance;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("tracing.enabled", "true"));
+    }
+
+    public Tracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Open the root span for a test and make it current on this thread.
+     */
+    public void startTest(String testName, String className, String browser, String env) {
+        TestSpan previous = currentTest.get();
+        if (previous != null) {
+            // The last test's tearDown did not reach endTest (it threw before then)
+            logger.warn("Closing unfinished test span for {}", previous.name);
+            finish(previous, "UNFINISHED", null);
+        }
+        Span span = tracer.spanBuilder(testName)
+                .setParent(Context.root())
+                .setAttribute(TEST_NAME, testName)
+                .setAttribute(TEST_CLASS, className)
+                .setAttribute(BROWSER, browser)
+                .setAttribute(EXECUTION_ENV, env)
+                .startSpan();
+        currentTest.set(new TestSpan(testName, span, span.makeCurrent()));
+        tests.incrementAndGet();
+    }
+
+    /**
+     * Record the WebDriver session id on the current test's span.
+     */
+    public void setSessionId(String sessionId) {
+        TestSpan test = currentTest.get();
+        if (test != null && sessionId != null) {
+            test.span.setAttribute(SESSION_ID, sessionId);
+        }
+    }
+
+    /**
+     * End the current test's span with the test outcome.
+     */
+    public void endTest(String status, Throwable error) {
+        TestSpan test = currentTest.get();
+        if (test != null) {
+            finish(test, status, error);
+        }
+    }
+
+    private void finish(TestSpan test, String status, Throwable error) {
+        currentTest.remove();
+        test.scope.close();
+        test.span.setAttribute(TEST_STATUS, status);
+        if (error != null) {
+            test.span.recordException(error);
+        }
+        if (error != null || "FAILED".equals(status) || "UNFINISHED".equals(status)) {
+            test.span.setStatus(StatusCode.ERROR, status);
+        }
+        test.span.end();
+        testRuns.add(1, Attributes.of(TEST_STATUS, status));
+    }
+
+    void recordStep() {
+        steps.incrementAndGet();
+    }
+
+    void recordCommand(String command, long nanos, boolean failed) {
+        commands.incrementAndGet();
+        commandDuration.record(nanos / 1_000_000.0, Attributes.of(COMMAND, command, ERROR, failed));
+    }
+
+    /**
+     * Flush pending spans and metrics and stop the exporters. Call once at suite end.
+     */
+    public void shutdown() {
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+        tracerProvider.shutdown().join(10, TimeUnit.SECONDS);
+        if (meterProvider != null) {
+            // Collects once more, so the final cumulative values are exported
+            meterProvider.shutdown().join(10, TimeUnit.SECONDS);
+        }
+    }
+
+    public Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        metrics.put("testSpans", String.valueOf(tests.get()));
+        metrics.put("stepSpans", String.valueOf(steps.get()));
+        metrics.put("commandSpans", String.valueOf(commands.get()));
+        if (fileExporter != null) {
+            metrics.putAll(fileExporter.getMetrics());
+        }
+        return metrics;
+    }
+
+    private static final class TestSpan {
+        private final String name;
+        private final Span span;
+        private final Scope scope;
+
+        TestSpan(String name, Span span, Scope scope) {
+            this.name = name;
+            this.span = span;
+            this.scope = scope;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.automation.utils;
+
+import com.automation.driver.ChromeServiceRegistry;
+import com.automation.driver.LocalDriverFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of every live WebDriver session, keyed by the owning thread.
+ *
+ * A background reaper quits sessions whose owner thread has died or which have
+ * been idle longer than -Ddriver.tracker.idleTimeoutSeconds, killing the browser
+ * process tree if quit does not work. A JVM shutdown hook does the same for
+ * anything still registered when the run ends.
+ */
+public final class DriverTracker {
+
+    private static final Logger logger = LogManager.getLogger(DriverTracker.class);
+
+    private static final long IDLE_TIMEOUT_MILLIS =
+            TimeUnit.SECONDS.toMillis(Long.getLong("driver.tracker.idleTimeoutSeconds", 900));
+    private static final long REAP_INTERVAL_SECONDS = Long.getLong("driver.tracker.reapIntervalSeconds", 30);
+    private static final long QUIT_TIMEOUT_SECONDS = 10;
+
+    private static final Map<Long, TrackedSession> sessions = new ConcurrentHashMap<>();
+    private static final AtomicLong registered = new AtomicLong();
+    private static final AtomicLong reaped = new AtomicLong();
+    private static final AtomicLong processesKilled = new AtomicLong();
+
+    static {
+        ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "driver-tracker-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        reaper.scheduleWithFixedDelay(DriverTracker::reapOrphans,
+                REAP_INTERVAL_SECONDS, REAP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverTracker::quitAll, "driver-tracker-shutdown"));
+    }
+
+    private DriverTracker() {
+    }
+
+    /**
+     * Register the session owned by the given thread.
+     */
+    public static void register(long threadId, WebDriver driver) {
+        register(threadId, null, driver);
+    }
+
+    /**
+     * Register the session owned by the given thread for a test. Any session the
+     * thread still had registered is considered leaked and is quit.
+     */
+    public static void register(long threadId, String testId, WebDriver driver) {
+        register(threadId, testId, driver, () -> LocalDriverFactory.quit(driver), resolvePids(driver));
+    }
+
+    /**
+     * Register a session whose end is not a plain quit, e.g. a pooled session that
+     * must be handed back to its pool or a context on a shared browser. {@code release}
+     * runs wherever the tracker would otherwise quit the driver (leak on re-register,
+     * reaper, shutdown). The browser process outlives the session, so it is never killed.
+     */
+    public static void register(long threadId, String testId, WebDriver driver, Runnable release) {
+        register(threadId, testId, driver, release, Collections.emptyList());
+    }
+
+    private static void register(long threadId, String testId, WebDriver driver, Runnable release, List<Long> pids) {
+        Thread owner = Thread.currentThread().getId() == threadId ? Thread.currentThread() : null;
+        TrackedSession session = new TrackedSession(threadId, testId, owner, driver, release, pids);
+        registered.incrementAndGet();
+        TrackedSession previous = sessions.put(threadId, session);
+        if (previous != null && previous.driver != driver) {
+            logger.warn("Thread {} registered a new driver while still holding one for {}, quitting the old one",
+                    threadId, previous.testId);
+            terminate(previous);
+        }
+    }
+
+    /**
+     * Record activity on the thread's session so the reaper does not treat it as idle.
+     */
+    public static void touch(long threadId) {
+        TrackedSession session = sessions.get(threadId);
+        if (session != null) {
+            session.lastActivityMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Listener that marks the thread's session active on every WebDriver call,
+     * so "idle" means no commands rather than "registered long ago".
+     */
+    public static WebDriverListener activityListener(long threadId) {
+        return new WebDriverListener() {
+            @Override
+            public void beforeAnyCall(Object target, Method method, Object[] args) {
+                touch(threadId);
+            }
+        };
+    }
+
+    /**
+     * Stop tracking the thread's session without quitting it (e.g. returned to the pool).
+     */
+    public static void unregister(long threadId) {
+        sessions.remove(threadId);
+    }
+
+    /**
+     * Quit and stop tracking the session owned by the given thread.
+     */
+    public static void quitAndRemove(long threadId) {
+        TrackedSession session = sessions.remove(threadId);
+        if (session != null) {
+            session.release.run();
+        }
+    }
+
+    /**
+     * Number of sessions currently registered.
+     */
+    public static int liveSessionCount() {
+        return sessions.size();
+    }
+
+    public static Map<String, String> getMetrics() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        metrics.put("liveSessions", String.valueOf(sessions.size()));
+        metrics.put("sessionsRegistered", String.valueOf(registered.get()));
+        metrics.put("sessionsReaped", String.valueOf(reaped.get()));
+        metrics.put("processesKilled", String.valueOf(processesKilled.get()));
+        return metrics;
+    }
+
+    /**
+     * Quit every registered session. Runs from the shutdown hook.
+     */
+    public static void quitAll() {
+        for (Map.Entry<Long, TrackedSession> entry : sessions.entrySet()) {
+            if (sessions.remove(entry.getKey(), entry.getValue())) {
+                terminate(entry.getValue());
+            }
+        }
+    }
+
+    static void reapOrphans() {
+        reapOrphans(System.currentTimeMillis());
+    }
+
+    static void reapOrphans(long now) {
+        for (Map.Entry<Long, TrackedSession> entry : sessions.entrySet()) {
+            TrackedSession session = entry.getValue();
+            boolean ownerDead = session.owner != null && !session.owner.isAlive();
+            boolean idle = now - session.lastActivityMillis > idleTimeoutMillis();
+            if ((ownerDead || idle) && sessions.remove(entry.getKey(), session)) {
+                logger.warn("Reaping session for thread {} (test: {}, reason: {}, age: {}s)",
+                        session.threadId, session.testId, ownerDead ? "owner thread died" : "idle",
+                        TimeUnit.MILLISECONDS.toSeconds(now - session.createdAtMillis));
+                reaped.incrementAndGet();
+                terminate(session);
+            }
+        }
+    }
+
+    /**
+     * Quit the session with a timeout, then make sure its processes are gone.
+     */
+    private static void terminate(TrackedSession session) {
+        try {
+            CompletableFuture.runAsync(session.release).get(QUIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warn("Quit failed for thread {} session, killing processes {}: {}",
+                    session.threadId, session.pids, e.getMessage());
+        }
+        for (Long pid : session.pids) {
+            ProcessHandle.of(pid).ifPresent(process -> {
+                process.descendants().forEach(DriverTracker::kill);
+                kill(process);
+            });
+        }
+    }
+
+    static long idleTimeoutMillis() {
+        return IDLE_TIMEOUT_MILLIS;
+    }
+
+    private static void kill(ProcessHandle process) {
+        if (process.isAlive() && process.destroyForcibly()) {
+            processesKilled.incrementAndGet();
+        }
+    }
+
+    /**
+     * Find the browser PID (and its chromedriver parent, when that process is not
+     * shared with other sessions) so leaked processes can be killed directly.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Long> resolvePids(WebDriver driver) {
+        if (!(driver instanceof HasCdp)) {
+            return Collections.emptyList();
+        }
+        List<Long> pids = new ArrayList<>();
+        try {
+            Map<String, Object> info = ((HasCdp) driver)
+                    .executeCdpCommand("SystemInfo.getProcessInfo", Collections.emptyMap());
+            for (Map<String, Object> process : (List<Map<String, Object>>) info.get("processInfo")) {
+                if ("browser".equals(process.get("type"))) {
+                    long browserPid = ((Number) process.get("id")).longValue();
+                    if (!ChromeServiceRegistry.isEnabled()) {
+                        ProcessHandle.of(browserPid)
+                                .flatMap(ProcessHandle::parent)
+                                .filter(p -> p.info().command().map(c -> c.contains("chromedriver")).orElse(false))
+                                .ifPresent(p -> pids.add(p.pid()));
+                    }
+                    pids.add(browserPid);
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Could not resolve browser process ids: " + e.getMessage());
+        }
+        return pids;
+    }
+
+    private static final class TrackedSession {
+        private final long threadId;
+        private final String testId;
+        private final Thread owner;
+        private final WebDriver driver;
+        private final Runnable release;
+        private final List<Long> pids;
+        private final long createdAtMillis;
+        private volatile long lastActivityMillis;
+
+        TrackedSession(long threadId, String testId, Thread owner, WebDriver driver, Runnable release, List<Long> pids) {
+            this.threadId = threadId;
+            this.testId = testId;
+            this.owner = owner;
+            this.driver = driver;
+            this.release = release;
+            this.pids = pids;
+            this.createdAtMillis = System.currentTimeMillis();
+            this.lastActivityMillis = createdAtMillis;
+        }
+    }
+}
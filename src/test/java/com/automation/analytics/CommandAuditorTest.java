@@ -0,0 +1,79 @@
+package com.automation.analytics;
+
+import com.automation.base.BasePage;
+import com.automation.support.FakeDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks command counting and page-method attribution without a browser,
+ * using a fake driver that records the calls it receives.
+ */
+public class CommandAuditorTest {
+
+    public static class FakePage extends BasePage {
+        @FindBy(id = "username")
+        WebElement username;
+
+        FakePage(WebDriver driver) {
+            super(driver);
+        }
+
+        String titleTwice() {
+            driver.getTitle();
+            return driver.getTitle();
+        }
+
+        String describeUsername() {
+            return describe(username);
+        }
+    }
+
+    private static WebDriver fakeDriver(AtomicInteger calls) {
+        return new FakeDriver((proxy, method, args) -> {
+            calls.incrementAndGet();
+            switch (method.getName()) {
+                case "findElements":
+                    return Collections.emptyList();
+                case "getTitle":
+                    return "title";
+                default:
+                    return null;
+            }
+        }).get();
+    }
+
+    @Test(description = "Commands are charged to the outermost page-object method or to the test")
+    public void testCountsPerPageMethod() {
+        CommandAuditor auditor = new CommandAuditor("testCountsPerPageMethod");
+        WebDriver driver = new EventFiringDecorator<>(WebDriver.class, auditor).decorate(fakeDriver(new AtomicInteger()));
+
+        FakePage page = new FakePage(driver);
+        Assert.assertEquals(page.titleTwice(), "title");
+        driver.getCurrentUrl();
+        driver.findElements(By.id("missing"));
+
+        Map<String, Long> counts = auditor.getCommandsByPageMethod();
+        Assert.assertEquals(auditor.getCommandCount(), 4);
+        Assert.assertEquals(counts.get("FakePage.titleTwice"), Long.valueOf(2));
+        Assert.assertEquals(counts.get("(test)"), Long.valueOf(2));
+    }
+
+    @Test(description = "Element descriptions come from the field declaration without any command")
+    public void testDescribeDoesNotTouchElement() {
+        AtomicInteger calls = new AtomicInteger();
+        FakePage page = new FakePage(fakeDriver(calls));
+
+        Assert.assertEquals(page.describeUsername(), "FakePage.username (By.id: username)");
+        Assert.assertEquals(calls.get(), 0);
+    }
+}
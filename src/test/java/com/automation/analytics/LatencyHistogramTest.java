@@ -0,0 +1,44 @@
+package com.automation.analytics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.stream.IntStream;
+
+/**
+ * Checks histogram bucketing and percentile accuracy.
+ */
+public class LatencyHistogramTest {
+
+    @Test(description = "Buckets are contiguous and every value falls in the bucket that covers it")
+    public void testBucketBounds() {
+        for (long micros : new long[] {0, 1, 15, 16, 17, 31, 32, 1000, 123_456, 9_999_999}) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            Assert.assertTrue(LatencyHistogram.lowerBoundOf(bucket) <= micros, "lower bound of " + micros);
+            Assert.assertTrue(LatencyHistogram.lowerBoundOf(bucket + 1) > micros, "upper bound of " + micros);
+        }
+    }
+
+    @Test(description = "Percentiles are within the bucket resolution of the exact values")
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1ms .. 1000ms, one sample each
+        IntStream.rangeClosed(1, 1000).parallel().forEach(ms -> histogram.recordMicros(ms * 1000L));
+
+        Assert.assertEquals(histogram.getCount(), 1000);
+        Assert.assertEquals(histogram.getMaxMicros(), 1_000_000);
+        assertWithin(histogram.percentileMicros(0.50), 500_000);
+        assertWithin(histogram.percentileMicros(0.95), 950_000);
+        assertWithin(histogram.percentileMicros(0.99), 990_000);
+    }
+
+    @Test(description = "An empty histogram reports zero")
+    public void testEmpty() {
+        Assert.assertEquals(new LatencyHistogram().percentileMicros(0.99), 0);
+    }
+
+    private static void assertWithin(long actual, long expected) {
+        Assert.assertTrue(Math.abs(actual - expected) <= expected * 0.125,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,107 @@
+package com.automation.auth;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.Cookie;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exercises the login shortcut against a local stand-in login server.
+ */
+public class AuthSessionProviderTest {
+
+    private HttpServer server;
+    private final AtomicInteger loginRequests = new AtomicInteger();
+    private URI loginUrl;
+
+    @BeforeMethod
+    public void startLoginServer() throws IOException {
+        loginRequests.set(0);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/login", this::handleLogin);
+        server.createContext("/dashboard", exchange -> {
+            exchange.getResponseHeaders().add("Set-Cookie", "last_seen=now; Path=/");
+            exchange.getResponseHeaders().add("Set-Cookie", "consent=yes; Path=/; Max-Age=0");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        loginUrl = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/login");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopLoginServer() {
+        server.stop(0);
+    }
+
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        loginRequests.incrementAndGet();
+        String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        if ("POST".equals(exchange.getRequestMethod()) && form.equals("username=student&password=Password123")) {
+            exchange.getResponseHeaders().add("Set-Cookie",
+                    "session=token-" + loginRequests.get() + "; Path=/; HttpOnly");
+            exchange.getResponseHeaders().add("Location", "/dashboard");
+            exchange.sendResponseHeaders(302, -1);
+        } else {
+            exchange.sendResponseHeaders(401, -1);
+        }
+        exchange.close();
+    }
+
+    @Test(description = "Cookies from the login and its redirect are captured and cached")
+    public void testLoginOnceAndReuseCachedCookies() {
+        AuthSessionProvider provider = new AuthSessionProvider(
+                new HttpFormLogin(loginUrl, "username", "password"), Duration.ofMinutes(5));
+
+        List<Cookie> first = provider.getCookies("student", "Password123");
+        List<Cookie> second = provider.getCookies("student", "Password123");
+
+        Assert.assertEquals(loginRequests.get(), 1, "Second request should be served from cache");
+        Assert.assertEquals(second, first);
+        Cookie session = first.stream().filter(c -> c.getName().equals("session")).findFirst().orElseThrow();
+        Assert.assertEquals(session.getValue(), "token-1");
+        Assert.assertEquals(session.getDomain(), "127.0.0.1");
+        Assert.assertTrue(session.isHttpOnly());
+        Assert.assertNull(session.getExpiry(), "A cookie without Max-Age/Expires is a session cookie");
+        Assert.assertTrue(first.stream().anyMatch(c -> c.getName().equals("last_seen")),
+                "Cookies set after the redirect should be captured");
+        Cookie consent = first.stream().filter(c -> c.getName().equals("consent")).findFirst().orElseThrow();
+        Assert.assertNull(consent.getExpiry(), "Max-Age=0 should be injected as a session cookie, not one that expires now");
+        Assert.assertEquals(provider.getMetrics().get("cacheHits"), "1");
+    }
+
+    @Test(description = "Expired sessions are refreshed with a new login")
+    public void testExpiredSessionIsRefreshed() throws InterruptedException {
+        AuthSessionProvider provider = new AuthSessionProvider(
+                new HttpFormLogin(loginUrl, "username", "password"), Duration.ofMillis(100));
+
+        provider.getCookies("student", "Password123");
+        Thread.sleep(150);
+        List<Cookie> refreshed = provider.getCookies("student", "Password123");
+
+        Assert.assertEquals(loginRequests.get(), 2);
+        Assert.assertTrue(refreshed.stream().anyMatch(c -> c.getValue().equals("token-2")));
+        Assert.assertEquals(provider.getMetrics().get("refreshes"), "1");
+    }
+
+    @Test(description = "Rejected credentials fail instead of caching an empty session")
+    public void testRejectedLoginFails() {
+        AuthSessionProvider provider = new AuthSessionProvider(
+                new HttpFormLogin(loginUrl, "username", "password"), Duration.ofMinutes(5));
+
+        Assert.assertThrows(UncheckedIOException.class, () -> provider.getCookies("student", "wrong"));
+        Assert.assertEquals(provider.getMetrics().get("cachedUsers"), "0");
+    }
+}
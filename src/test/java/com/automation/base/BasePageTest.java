@@ -0,0 +1,184 @@
+package com.automation.base;
+
+import com.automation.support.FakeDriver;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Checks BasePage actions against a fake driver whose page is always stable
+ * and whose form script outcome is scripted per test.
+ */
+public class BasePageTest {
+
+    static class FakePage extends BasePage {
+        FakePage(WebDriver driver) {
+            super(driver);
+        }
+    }
+
+    private static WebDriver stableDriver() {
+        return new FakeDriver((proxy, method, args) ->
+                "executeScript".equals(method.getName()) ? Collections.singletonMap("ready", true) : null,
+                JavascriptExecutor.class).get();
+    }
+
+    private static WebElement element(Boolean displayed) {
+        return (WebElement) Proxy.newProxyInstance(BasePageTest.class.getClassLoader(),
+                new Class<?>[] {WebElement.class}, (proxy, method, args) -> {
+                    if ("isDisplayed".equals(method.getName())) {
+                        if (displayed == null) {
+                            throw new NoSuchElementException("not in the DOM");
+                        }
+                        return displayed;
+                    }
+                    return null;
+                });
+    }
+
+    @Test(description = "A missing element is both absent and not displayed")
+    public void testMissingElement() {
+        FakePage page = new FakePage(stableDriver());
+        WebElement missing = element(null);
+
+        Assert.assertTrue(page.isElementAbsent(missing));
+        Assert.assertTrue(page.isElementNotDisplayed(missing));
+    }
+
+    @Test(description = "A hidden element is not displayed but is not absent")
+    public void testHiddenElement() {
+        FakePage page = new FakePage(stableDriver());
+        WebElement hidden = element(false);
+
+        Assert.assertFalse(page.isElementAbsent(hidden));
+        Assert.assertTrue(page.isElementNotDisplayed(hidden));
+    }
+
+    @Test(description = "A visible element is neither absent nor hidden")
+    public void testPresentElement() {
+        FakePage page = new FakePage(stableDriver());
+        WebElement present = element(true);
+
+        Assert.assertFalse(page.isElementAbsent(present));
+        Assert.assertFalse(page.isElementNotDisplayed(present));
+    }
+
+    /**
+     * Fake browser for fillForm: answers the form script from a per-test rule and
+     * records the native input that falls back to WebDriver.
+     */
+    private static class FormBrowser {
+        final List<Integer> scriptStarts = new ArrayList<>();
+        final List<String> nativeCalls = new ArrayList<>();
+        final WebDriver driver;
+
+        FormBrowser(IntFunction<Map<String, Object>> outcomeFrom) {
+            driver = new FakeDriver((proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "executeScript":
+                        Object[] scriptArgs = (Object[]) args[1];
+                        int from = ((Number) scriptArgs[1]).intValue();
+                        scriptStarts.add(from);
+                        return outcomeFrom.apply(from);
+                    case "findElement":
+                        return nativeElement(String.valueOf(args[0]));
+                    default:
+                        return null;
+                }
+            }, JavascriptExecutor.class).get();
+        }
+
+        private WebElement nativeElement(String locator) {
+            return (WebElement) Proxy.newProxyInstance(BasePageTest.class.getClassLoader(),
+                    new Class<?>[] {WebElement.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "isDisplayed":
+                            case "isEnabled":
+                                return true;
+                            case "clear":
+                            case "click":
+                                nativeCalls.add(method.getName() + " " + locator);
+                                return null;
+                            case "sendKeys":
+                                nativeCalls.add("sendKeys " + locator + " " + Arrays.toString((Object[]) args[0]));
+                                return null;
+                            default:
+                                return null;
+                        }
+                    });
+        }
+    }
+
+    private static Map<String, Object> outcome(long done, String stop) {
+        Map<String, Object> outcome = new LinkedHashMap<>();
+        outcome.put("done", done);
+        outcome.put("stop", stop);
+        return outcome;
+    }
+
+    @Test(description = "All steps the page can perform run in a single script call")
+    public void testFillFormBatched() {
+        FormBrowser browser = new FormBrowser(from -> outcome(3, null));
+        FakePage page = new FakePage(browser.driver);
+
+        List<FormStep.Result> results = page.fillForm(Arrays.asList(
+                FormStep.type("#username", "student"),
+                FormStep.type("#password", "Password123"),
+                FormStep.click("#submit")));
+
+        Assert.assertEquals(browser.scriptStarts, Collections.singletonList(0));
+        Assert.assertTrue(browser.nativeCalls.isEmpty(), browser.nativeCalls.toString());
+        Assert.assertEquals(results.size(), 3);
+        for (FormStep.Result result : results) {
+            Assert.assertEquals(result.getMode(), "script");
+        }
+    }
+
+    @Test(description = "A step the script cannot perform is replayed natively and the batch resumes after it")
+    public void testFillFormFallsBackToNativeInput() {
+        // The script stops at step 1 (hidden field) the first time, then finishes from step 2
+        FormBrowser browser = new FormBrowser(from -> from == 0 ? outcome(1, "not visible") : outcome(3, null));
+        FakePage page = new FakePage(browser.driver);
+
+        List<FormStep.Result> results = page.fillForm(Arrays.asList(
+                FormStep.type("#username", "student"),
+                FormStep.type("#password", "Password123"),
+                FormStep.click("#submit")));
+
+        Assert.assertEquals(browser.scriptStarts, Arrays.asList(0, 2));
+        Assert.assertEquals(browser.nativeCalls, Arrays.asList(
+                "clear By.cssSelector: #password", "sendKeys By.cssSelector: #password [Password123]"));
+        Assert.assertEquals(results.get(0).getMode(), "script");
+        Assert.assertEquals(results.get(1).getMode(), "native");
+        Assert.assertEquals(results.get(1).getDetail(), "not visible");
+        Assert.assertEquals(results.get(2).getMode(), "script");
+    }
+
+    @Test(description = "Steps marked for native input skip the script entirely")
+    public void testFillFormNativeStep() {
+        FormBrowser browser = new FormBrowser(from -> outcome(2, null));
+        FakePage page = new FakePage(browser.driver);
+
+        List<FormStep.Result> results = page.fillForm(Arrays.asList(
+                FormStep.click("#consent").nativeInput(),
+                FormStep.type("#username", "student")));
+
+        Assert.assertEquals(browser.scriptStarts, Collections.singletonList(1));
+        Assert.assertEquals(browser.nativeCalls, Collections.singletonList("click By.cssSelector: #consent"));
+        Assert.assertEquals(results.get(0).getMode(), "native");
+        Assert.assertEquals(results.get(0).getDetail(), "native input requested");
+        Assert.assertEquals(results.get(1).getMode(), "script");
+    }
+}
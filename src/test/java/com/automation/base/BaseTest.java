@@ -2,31 +2,51 @@ package com.automation.base;
 
 import com.automation.config.CloudConfig;
 import com.automation.config.CloudConfig.ExecutionEnv;
-<<<<<<< HEAD
+import com.automation.config.SessionAdmissionController;
+import com.automation.analytics.CommandAuditor;
+import com.automation.analytics.CommandLatencyRecorder;
+import com.automation.analytics.NavigationTimings;
+import com.automation.auth.AuthSessionProvider;
+import com.automation.auth.AuthenticatedSession;
+import com.automation.analytics.TestAnalyticsLogger;
+import com.automation.driver.BrowserContextManager;
+import com.automation.driver.ChromeProfileManager;
+import com.automation.driver.ChromeServiceRegistry;
+import com.automation.driver.DriverPool;
+import com.automation.driver.LocalDriverFactory;
+import com.automation.driver.RemoteHttpClientFactory;
+import com.automation.driver.ScratchSpace;
+import com.automation.network.HarProxy;
+import com.automation.network.RequestBlocker;
+import com.automation.pages.DashboardPage;
+import com.automation.pages.LoginPage;
+import com.automation.state.StorageState;
+import com.automation.state.StorageStateCache;
+import com.automation.state.WithStorageState;
+import com.automation.tracing.CommandTracer;
+import com.automation.tracing.TestTracing;
 import com.automation.utils.DriverTracker;
-=======
-
->>>>>>> f38fccd8b81b1c1bbcb286640aaec35426793bfc
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeDriverService;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 
-import java.io.File;
-import java.io.IOException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Base test class with support for local, BrowserStack, and LambdaTest
@@ -36,12 +56,37 @@ public class BaseTest {
 
     // ThreadLocal WebDriver for thread-safe parallel execution
     private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    // Instrumented view of the same session handed to pages and tests; infrastructure keeps the raw driver
+    private static final ThreadLocal<WebDriver> observedDriver = new ThreadLocal<>();
+    // Pooled session backing the current thread's driver, when the session pool is enabled
+    private static final ThreadLocal<DriverPool.PooledSession> pooledSession = new ThreadLocal<>();
+    // Size of the session's scratch (profile) directory when the test started
+    private static final ThreadLocal<Long> scratchBaseline = new ThreadLocal<>();
+    // Third-party request blocking attached to the current test's page
+    private static final ThreadLocal<RequestBlocker> requestBlocker = new ThreadLocal<>();
+    // On-new-document script added by a storage state restore; removed before the browser is reused
+    private static final ThreadLocal<String> storageStateScript = new ThreadLocal<>();
     protected static final Logger logger = LogManager.getLogger(BaseTest.class);
 
     // Default test URL - can be overridden via config
     protected static final String BASE_URL = "https://practicetestautomation.com/practice-test-login/";
+    // Landing page for @AuthenticatedSession tests
+    protected static final String DASHBOARD_URL = "https://practicetestautomation.com/logged-in-successfully/";
+    // Credentials used to obtain cached sessions for @AuthenticatedSession tests
+    protected static final String AUTH_USERNAME = System.getProperty("auth.username", "student");
+    protected static final String AUTH_PASSWORD = System.getProperty("auth.password", "Password123");
 
     protected WebDriver getDriver() {
+        WebDriver observed = observedDriver.get();
+        return observed != null ? observed : driver.get();
+    }
+
+    /**
+     * The undecorated session, for code that needs the concrete driver type
+     * (CDP access, identity-keyed registries) or whose calls should not be
+     * charged to the test's command count.
+     */
+    protected WebDriver getRawDriver() {
         return driver.get();
     }
 
@@ -51,6 +96,7 @@ public class BaseTest {
 
     protected void removeDriver() {
         driver.remove();
+        observedDriver.remove();
     }
 
     @BeforeMethod
@@ -65,6 +111,11 @@ public class BaseTest {
         logger.info("Browser: " + browser);
         logger.info("========================================");
 
+        if (TestTracing.isEnabled()) {
+            // Root span for the test; steps and WebDriver commands nest under it until tearDown
+            TestTracing.getInstance().startTest(testName, method.getDeclaringClass().getName(), browser, env.toString());
+        }
+
         try {
             initializeDriver(browser, testName, env);
             WebDriver drv = getDriver();
@@ -72,14 +123,75 @@ public class BaseTest {
                 throw new RuntimeException("WebDriver was not initialized for thread");
             }
             drv.manage().window().maximize();
-            drv.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+            // Waiting is done by BasePage's WaitEngine; an implicit wait would compound with it on every poll
+            drv.manage().timeouts().implicitlyWait(Duration.ZERO);
             // Increase page load timeout to reduce false timeouts when running many browsers in parallel
             drv.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(60));
-            drv.get(BASE_URL);
-            logger.info("Navigated to: " + BASE_URL);
+            if (RequestBlocker.isEnabled()) {
+                requestBlocker.set(RequestBlocker.attach(getRawDriver()));
+            }
+            WithStorageState storageState = method.getAnnotation(WithStorageState.class);
+            if (storageState != null) {
+                restoreStorageState(storageState.value());
+            }
+            if (method.isAnnotationPresent(AuthenticatedSession.class)) {
+                // Skip the login form: reuse cached session cookies and land on the dashboard
+                AuthSessionProvider auth = AuthSessionProvider.getInstance();
+                auth.injectInto(getRawDriver(), DASHBOARD_URL, auth.getCookies(AUTH_USERNAME, AUTH_PASSWORD));
+                new DashboardPage(drv).open(DASHBOARD_URL);
+                logger.info("Navigated to: " + DASHBOARD_URL + " with authenticated session");
+            } else {
+                // Returns once the login form is usable; with eager/none this is before the full load
+                new LoginPage(drv).open(BASE_URL);
+                logger.info("Navigated to: " + BASE_URL);
+            }
         } catch (MalformedURLException e) {
             logger.error("Failed to initialize cloud driver", e);
             throw new RuntimeException("Cloud driver initialization failed", e);
+        } catch (RuntimeException | Error e) {
+            // Give the session back right away; a leaked cloud session would hold its admission slot
+            abandonSession();
+            throw e;
+        }
+    }
+
+    /**
+     * Release the current thread's session after setUp failed, whatever kind it
+     * is: a pooled lease goes back as broken, an isolated context is closed and
+     * any other session (local or cloud) is quit, which also frees its cloud
+     * admission slot. tearDown still runs afterwards for logging and tracing.
+     */
+    private void abandonSession() {
+        long threadId = Thread.currentThread().getId();
+        WebDriver drv = getRawDriver();
+
+        RequestBlocker blocker = requestBlocker.get();
+        if (blocker != null) {
+            blocker.close();
+            requestBlocker.remove();
+        }
+        storageStateScript.remove();
+        scratchBaseline.remove();
+
+        DriverPool.PooledSession session = pooledSession.get();
+        try {
+            if (session != null) {
+                logger.warn("setUp failed, returning pooled session #{} as broken", session.getId());
+                DriverTracker.unregister(threadId);
+                DriverPool.getInstance().release(session, false);
+            } else if (drv != null && isContextIsolated()) {
+                logger.warn("setUp failed, disposing browser context");
+                DriverTracker.unregister(threadId);
+                BrowserContextManager.getInstance().closeContext();
+            } else if (drv != null) {
+                logger.warn("setUp failed, closing browser");
+                DriverTracker.quitAndRemove(threadId);
+            }
+        } catch (Exception e) {
+            logger.warn("Error while releasing session after setUp failure: " + e.getMessage());
+        } finally {
+            pooledSession.remove();
+            removeDriver();
         }
     }
 
@@ -103,118 +215,69 @@ public class BaseTest {
 
             case LOCAL:
             default:
-                logger.info("Initializing local driver...");
-                setDriver(createLocalDriver(browser));
-<<<<<<< HEAD
-                // Register the driver for robust cleanup
-                DriverTracker.register(Thread.currentThread().getId(), getDriver());
-=======
-                // DriverTracker removed: we rely on the ThreadLocal reference and explicit quit in tearDown
->>>>>>> f38fccd8b81b1c1bbcb286640aaec35426793bfc
+                if (BrowserContextManager.isEnabled()) {
+                    logger.info("Opening isolated browser context on shared local browser...");
+                    setDriver(BrowserContextManager.getInstance().openContext(browser));
+                } else if (DriverPool.isEnabled()) {
+                    logger.info("Leasing local driver from session pool...");
+                    DriverPool.PooledSession session = DriverPool.getInstance().lease(browser);
+                    pooledSession.set(session);
+                    setDriver(session.getDriver());
+                } else {
+                    logger.info("Initializing local driver...");
+                    setDriver(LocalDriverFactory.createLocalDriver(browser));
+                }
                 break;
         }
 
-        logger.info("WebDriver initialized successfully for: " + env);
-    }
-
-    private WebDriver createLocalDriver(String browser) {
-        switch (browser.toLowerCase()) {
-            case "chrome":
-                ChromeOptions chromeOptions = new ChromeOptions();
-                // Allow remote origins when using newer Chrome/Chromedriver
-                chromeOptions.addArguments("--remote-allow-origins=*");
-
-                // Use a unique temporary profile per thread to avoid profile lock/contention
-                String userDataDir = System.getProperty("java.io.tmpdir") + "/chrome-profile-" + Thread.currentThread().getId();
-                chromeOptions.addArguments("--user-data-dir=" + userDataDir);
-
-                // Stability flags for parallel runs
-                chromeOptions.addArguments("--no-sandbox");
-                chromeOptions.addArguments("--disable-dev-shm-usage");
-                chromeOptions.addArguments("--disable-extensions");
-                chromeOptions.addArguments("--disable-background-timer-throttling");
-                chromeOptions.addArguments("--disable-renderer-backgrounding");
-                chromeOptions.addArguments("--disable-backgrounding-occluded-windows");
-                chromeOptions.addArguments("--disable-gpu");
-                chromeOptions.addArguments("--no-first-run");
-                chromeOptions.addArguments("--disable-infobars");
-
-                // Headless mode for CI or when explicitly requested
-                // Enable headless if explicitly requested or if running in CI (no display available)
-                boolean headlessRequested = Boolean.parseBoolean(System.getProperty("headless", "false")) || isCiEnvironment();
-                if (headlessRequested) {
-                    chromeOptions.addArguments("--headless=new");
-                    chromeOptions.addArguments("--window-size=1920,1080");
-                }
-
-                // Ensure target directory exists so we can write logs
-                File targetDir = new File("target");
-                if (!targetDir.exists()) {
-                    boolean created = targetDir.mkdirs();
-                    if (!created) {
-                        logger.warn("Could not create target directory for logs: {}", targetDir.getAbsolutePath());
-                    }
-                }
-
-                // Create a per-thread ChromeDriver log file under target/
-                File chromeLog = new File(targetDir, "chromedriver-" + Thread.currentThread().getId() + ".log");
-
-                // Try to create a ChromeDriverService that writes verbose logs to the file.
-                // If creating the service fails, fall back to the no-service constructor.
-                ChromeDriverService service;
-                try {
-                    service = new ChromeDriverService.Builder()
-                            .usingAnyFreePort()
-                            .withLogFile(chromeLog)
-                            .withVerbose(true)
-                            .build();
-                    return new ChromeDriver(service, chromeOptions);
-                } catch (Exception e) {
-                    // Some Selenium versions may throw unchecked exceptions here; log and fall back
-                    logger.warn("Could not create ChromeDriverService for verbose logging: {}", e.getMessage());
-                    return new ChromeDriver(chromeOptions);
-                }
-
-            case "firefox":
-                FirefoxOptions firefoxOptions = new FirefoxOptions();
-                // Mirror Chrome behaviour for headless selection
-                if (Boolean.parseBoolean(System.getProperty("headless", "false")) || isCiEnvironment()) {
-                    firefoxOptions.addArguments("--headless");
-                }
-                return new FirefoxDriver(firefoxOptions);
-
-            case "edge":
-                return new EdgeDriver();
+        // Register the driver for robust cleanup if this thread dies mid-test
+        DriverPool.PooledSession session = pooledSession.get();
+        if (session != null) {
+            // A leaked lease goes back to the pool as broken so its slot is freed
+            DriverTracker.register(Thread.currentThread().getId(), testName, getRawDriver(),
+                    () -> DriverPool.getInstance().release(session, false));
+        } else if (isContextIsolated()) {
+            // The raw driver is this thread's shared host browser: a leak only costs the test's context
+            long threadId = Thread.currentThread().getId();
+            DriverTracker.register(threadId, testName, getRawDriver(),
+                    () -> BrowserContextManager.getInstance().closeContext(threadId));
+        } else {
+            DriverTracker.register(Thread.currentThread().getId(), testName, getRawDriver());
+        }
 
-            default:
-                logger.warn("Browser '{}' not supported, defaulting to Chrome", browser);
-                return new ChromeDriver();
+        if (ScratchSpace.getInstance().isRamMode()) {
+            scratchBaseline.set(scratchBytes(getRawDriver()));
         }
-    }
 
-    // Detect common CI environments (GitHub Actions, generic CI) to auto-enable headless mode when needed.
-    private boolean isCiEnvironment() {
-        try {
-            String gh = System.getenv("GITHUB_ACTIONS");
-            if (gh != null && gh.equalsIgnoreCase("true")) {
-                return true;
-            }
-            String ci = System.getenv("CI");
-            if (ci != null && ci.equalsIgnoreCase("true")) {
-                return true;
+        // Idle tracking, command counting and latency histograms share one decorator
+        List<WebDriverListener> listeners = new ArrayList<>();
+        listeners.add(DriverTracker.activityListener(Thread.currentThread().getId()));
+        if (CommandAuditor.isEnabled()) {
+            listeners.add(CommandAuditor.start(testName));
+        }
+        if (CommandLatencyRecorder.isEnabled()) {
+            listeners.add(new CommandLatencyRecorder(testName));
+        }
+        if (TestTracing.isEnabled()) {
+            TestTracing tracing = TestTracing.getInstance();
+            if (getRawDriver() instanceof RemoteWebDriver) {
+                tracing.setSessionId(String.valueOf(((RemoteWebDriver) getRawDriver()).getSessionId()));
             }
-        } catch (Exception e) {
-            // safely ignore any security manager issues accessing env
+            listeners.add(new CommandTracer(tracing));
         }
-        return false;
+        observedDriver.set(new EventFiringDecorator<>(WebDriver.class, listeners.toArray(new WebDriverListener[0]))
+                .decorate(getRawDriver()));
+
+        logger.info("WebDriver initialized successfully for: " + env);
     }
 
-    @AfterMethod
+    // alwaysRun: also runs (as SKIP) after a failed setUp, so the test's span and auditor are closed
+    @AfterMethod(alwaysRun = true)
     public void tearDown(ITestResult result) {
         String testName = result.getName();
         boolean passed = result.getStatus() == ITestResult.SUCCESS;
 
-        WebDriver drv = getDriver();
+        WebDriver drv = getRawDriver();
 
         // Update cloud platform test status
         if (CloudConfig.getExecutionEnv() != ExecutionEnv.LOCAL && drv != null) {
@@ -235,15 +298,62 @@ public class BaseTest {
         }
 
         if (drv != null) {
+            NavigationTimings.settle(getDriver());
+        }
+
+        CommandAuditor auditor = CommandAuditor.current();
+        if (auditor != null) {
+            auditor.finish();
+        }
+
+        RequestBlocker blocker = requestBlocker.get();
+        if (blocker != null) {
+            blocker.close();
+            Map<String, String> stats = new LinkedHashMap<>(blocker.getStats());
+            stats.put("test", testName);
+            TestAnalyticsLogger.getInstance().logMetrics("network.blocking.test", stats);
+            requestBlocker.remove();
+        }
+
+        Long baseline = scratchBaseline.get();
+        if (baseline != null && drv != null) {
+            long growth = Math.max(0, scratchBytes(drv) - baseline);
+            ScratchSpace.getInstance().recordProfileGrowth(growth);
+            Map<String, String> scratch = new LinkedHashMap<>();
+            scratch.put("test", testName);
+            scratch.put("profileBytesWritten", String.valueOf(growth));
+            TestAnalyticsLogger.getInstance().logMetrics("browser.scratch.test", scratch);
+            logger.info("Profile growth during {}: {} bytes", testName, growth);
+            scratchBaseline.remove();
+        }
+
+        String restoreScript = storageStateScript.get();
+        if (restoreScript != null && drv != null) {
+            try {
+                StorageState.removeRestoreScript(drv, restoreScript);
+            } catch (Exception e) {
+                logger.warn("Could not remove storage state restore script: " + e.getMessage());
+            }
+        }
+        storageStateScript.remove();
+
+        DriverPool.PooledSession session = pooledSession.get();
+        if (drv != null && isContextIsolated()) {
+            // Only the test's context goes away; the shared browser stays up for the next test
+            logger.info("Disposing browser context");
+            DriverTracker.unregister(Thread.currentThread().getId());
+            BrowserContextManager.getInstance().closeContext();
+        } else if (session != null) {
+            // Keep the browser alive for the next test unless this one failed
+            logger.info("Returning browser to session pool");
+            DriverTracker.unregister(Thread.currentThread().getId());
+            DriverPool.getInstance().release(session, result.getStatus() != ITestResult.FAILURE);
+            pooledSession.remove();
+        } else if (drv != null) {
             logger.info("Closing browser");
             try {
-<<<<<<< HEAD
                 // Quit drivers registered for this thread (handles potential duplicates)
                 DriverTracker.quitAndRemove(Thread.currentThread().getId());
-=======
-                // Directly quit the WebDriver instance for this thread
-                drv.quit();
->>>>>>> f38fccd8b81b1c1bbcb286640aaec35426793bfc
             } catch (Exception e) {
                 logger.warn("Error while quitting driver: " + e.getMessage());
             }
@@ -251,6 +361,116 @@ public class BaseTest {
 
         // Remove thread-local reference to avoid leaks
         removeDriver();
+
+        if (TestTracing.isEnabled()) {
+            TestTracing.getInstance().endTest(statusOf(result), result.getThrowable());
+        }
+    }
+
+    private static String statusOf(ITestResult result) {
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+                return "PASSED";
+            case ITestResult.FAILURE:
+                return "FAILED";
+            case ITestResult.SKIP:
+                return "SKIPPED";
+            default:
+                return String.valueOf(result.getStatus());
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void shutdownDriverResources() {
+        if (BrowserContextManager.isEnabled()) {
+            BrowserContextManager contexts = BrowserContextManager.getInstance();
+            contexts.shutdown();
+            TestAnalyticsLogger.getInstance().logMetrics("browser.contexts", contexts.getMetrics());
+        }
+        TestAnalyticsLogger.getInstance().logMetrics("driver.tracker", DriverTracker.getMetrics());
+        TestAnalyticsLogger.getInstance().logMetrics("page.readiness", NavigationTimings.getMetrics());
+        TestAnalyticsLogger.getInstance().logMetrics("wait.engine", WaitEngine.getMetrics());
+        TestAnalyticsLogger.getInstance().logMetrics("element.cache", ElementCache.getMetrics());
+        if (CommandAuditor.isEnabled()) {
+            TestAnalyticsLogger.getInstance().logMetrics("webdriver.commands", CommandAuditor.getMetrics());
+        }
+        if (CommandLatencyRecorder.isEnabled()) {
+            CommandLatencyRecorder.logSuiteMetrics();
+        }
+        if (TestTracing.isEnabled()) {
+            TestTracing tracing = TestTracing.getInstance();
+            tracing.shutdown();
+            TestAnalyticsLogger.getInstance().logMetrics("tracing", tracing.getMetrics());
+        }
+        TestAnalyticsLogger.getInstance().logMetrics("auth.sessions", AuthSessionProvider.getInstance().getMetrics());
+        TestAnalyticsLogger.getInstance().logMetrics("storage.state", StorageStateCache.getInstance().getMetrics());
+        if (DriverPool.isEnabled()) {
+            DriverPool pool = DriverPool.getInstance();
+            pool.shutdown();
+            TestAnalyticsLogger.getInstance().logMetrics("driver.pool", pool.getMetrics());
+        }
+        if (ChromeProfileManager.isTemplateMode()) {
+            TestAnalyticsLogger.getInstance().logMetrics("chrome.profiles", ChromeProfileManager.getInstance().getMetrics());
+        }
+        if (RequestBlocker.isEnabled()) {
+            TestAnalyticsLogger.getInstance().logMetrics("network.blocking", RequestBlocker.getSuiteStats());
+        }
+        if (HarProxy.isEnabled()) {
+            HarProxy proxy = HarProxy.getInstance();
+            proxy.stop();
+            TestAnalyticsLogger.getInstance().logMetrics("network.har", proxy.getMetrics());
+        }
+        if (ScratchSpace.getInstance().isRamMode()) {
+            TestAnalyticsLogger.getInstance().logMetrics("browser.scratch", ScratchSpace.getInstance().getMetrics());
+        }
+        if (ChromeServiceRegistry.isEnabled()) {
+            ChromeServiceRegistry registry = ChromeServiceRegistry.getInstance();
+            TestAnalyticsLogger.getInstance().logMetrics("chromedriver.services", registry.getMetrics());
+            registry.stopAll();
+        }
+        if (CloudConfig.getExecutionEnv() != ExecutionEnv.LOCAL) {
+            TestAnalyticsLogger.getInstance().logMetrics("cloud.admission", SessionAdmissionController.getInstance().getMetrics());
+            if (RemoteHttpClientFactory.isEnabled()) {
+                TestAnalyticsLogger.getInstance().logMetrics("remote.http", RemoteHttpClientFactory.getInstance().getMetrics());
+            }
+        }
+    }
+
+    /**
+     * Snapshot the current session's cookies and storage under a name, so later
+     * tests can start from the same state via {@link WithStorageState}.
+     */
+    protected StorageState captureStorageState(String name) {
+        StorageState state = StorageState.capture(name, getRawDriver());
+        StorageStateCache.getInstance().put(name, state);
+        logger.info("Captured storage state '{}' ({} cookies, {} localStorage keys)",
+                name, state.getCookies().size(), state.getLocalStorage().size());
+        return state;
+    }
+
+    /**
+     * Restore a cached snapshot into the current session. Must run before the
+     * session's first navigation to the snapshot's origin.
+     */
+    protected boolean restoreStorageState(String name) {
+        StorageState state = StorageStateCache.getInstance().get(name);
+        if (state == null) {
+            logger.warn("Storage state '{}' is not cached, starting from a clean session", name);
+            return false;
+        }
+        storageStateScript.set(state.restore(getRawDriver()));
+        StorageStateCache.getInstance().recordRestore();
+        logger.info("Restored storage state '{}' for {}", name, state.getOrigin());
+        return true;
+    }
+
+    private boolean isContextIsolated() {
+        return CloudConfig.getExecutionEnv() == ExecutionEnv.LOCAL && BrowserContextManager.isEnabled();
+    }
+
+    private long scratchBytes(WebDriver drv) {
+        Path profile = ChromeProfileManager.getInstance().profileOf(drv);
+        return profile != null ? ScratchSpace.getInstance().measure(profile) : 0;
     }
 
     /**
@@ -0,0 +1,108 @@
+package com.automation.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks element cache hit/miss/stale accounting without a browser, using a
+ * fake search context whose elements can be made stale.
+ */
+public class ElementCacheTest {
+
+    static class FakePage {
+        @FindBy(id = "username")
+        WebElement username;
+    }
+
+    private static class FakeContext implements SearchContext {
+        private final AtomicInteger lookups = new AtomicInteger();
+        private volatile boolean currentStale;
+
+        @Override
+        public WebElement findElement(By by) {
+            int generation = lookups.incrementAndGet();
+            currentStale = false;
+            return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {WebElement.class},
+                    (proxy, method, args) -> {
+                        if (currentStale && generation == lookups.get()) {
+                            throw new StaleElementReferenceException("stale");
+                        }
+                        return "getText".equals(method.getName()) ? "text-" + generation : null;
+                    });
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            return Collections.singletonList(findElement(by));
+        }
+    }
+
+    @Test(description = "Repeated calls reuse the resolved element")
+    public void testRepeatedCallsHitCache() {
+        FakeContext context = new FakeContext();
+        FakePage page = new FakePage();
+        ElementCache cache = new ElementCache(context);
+        cache.initElements(page);
+
+        Assert.assertEquals(page.username.getText(), "text-1");
+        Assert.assertEquals(page.username.getText(), "text-1");
+        Assert.assertEquals(page.username.getText(), "text-1");
+
+        Assert.assertEquals(context.lookups.get(), 1);
+        Assert.assertEquals(cache.getStats().get("misses"), "1");
+        Assert.assertEquals(cache.getStats().get("hits"), "2");
+    }
+
+    @Test(description = "A stale entry is re-located once and the call retried")
+    public void testStaleEntryIsReresolved() {
+        FakeContext context = new FakeContext();
+        FakePage page = new FakePage();
+        ElementCache cache = new ElementCache(context);
+        cache.initElements(page);
+
+        page.username.getText();
+        context.currentStale = true;
+
+        Assert.assertEquals(page.username.getText(), "text-2");
+        Assert.assertEquals(context.lookups.get(), 2);
+        Assert.assertEquals(cache.getStats().get("stale"), "1");
+    }
+
+    @Test(description = "Explicit invalidation drops only the cached element")
+    public void testInvalidate() {
+        FakeContext context = new FakeContext();
+        FakePage page = new FakePage();
+        ElementCache cache = new ElementCache(context);
+        cache.initElements(page);
+
+        page.username.getText();
+        Assert.assertTrue(ElementCache.invalidate(page.username));
+        Assert.assertEquals(page.username.getText(), "text-2");
+        Assert.assertFalse(ElementCache.invalidate(null));
+    }
+
+    @Test(description = "Generated-binder elements are cached, unless the resolver is uncached")
+    public void testGeneratedElementsHonourCacheSwitch() {
+        FakeContext context = new FakeContext();
+        WebElement cached = new ElementCache(context).element("username", By.id("username"));
+        cached.getText();
+        cached.getText();
+        Assert.assertEquals(context.lookups.get(), 1);
+
+        FakeContext uncachedContext = new FakeContext();
+        WebElement uncached = ElementCache.uncached(uncachedContext).element("username", By.id("username"));
+        Assert.assertEquals(uncached.getText(), "text-1");
+        Assert.assertEquals(uncached.getText(), "text-2");
+        Assert.assertEquals(uncachedContext.lookups.get(), 2);
+    }
+}
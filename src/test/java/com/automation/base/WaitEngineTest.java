@@ -0,0 +1,114 @@
+package com.automation.base;
+
+import com.automation.support.FakeDriver;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Checks observer-mode waits against a fake driver whose scripts can fail,
+ * time out or report a detached element.
+ */
+public class WaitEngineTest {
+
+    private static final WebElement ELEMENT = (WebElement) Proxy.newProxyInstance(
+            WaitEngineTest.class.getClassLoader(), new Class<?>[] {WebElement.class}, (proxy, method, args) -> null);
+
+    private final AtomicInteger scripts = new AtomicInteger();
+
+    @BeforeMethod
+    public void observerMode() {
+        System.setProperty("wait.mode", "observer");
+        scripts.set(0);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void pollMode() {
+        System.clearProperty("wait.mode");
+    }
+
+    @Test(description = "A mutation wait that hits the script timeout ends as a recorded TimeoutException")
+    public void testMutationScriptTimeout() {
+        WaitEngine waits = new WaitEngine(fakeDriver((script, mutation) -> {
+            if (mutation) {
+                throw new ScriptTimeoutException("script timeout");
+            }
+            throw new NoSuchElementException("not yet");
+        }), Duration.ofMillis(150));
+
+        Assert.expectThrows(TimeoutException.class, () -> waits.budget("mutationTimeout").visible(ELEMENT));
+        Assert.assertEquals(WaitEngine.getMetrics().get("mutationTimeout.timeouts"), "1");
+    }
+
+    @Test(description = "Other mutation script failures are recorded as errors and rethrown")
+    public void testMutationScriptError() {
+        WaitEngine waits = new WaitEngine(fakeDriver((script, mutation) -> {
+            if (mutation) {
+                throw new WebDriverException("target closed");
+            }
+            throw new NoSuchElementException("not yet");
+        }), Duration.ofSeconds(5));
+
+        Assert.expectThrows(WebDriverException.class, () -> waits.budget("mutationError").visible(ELEMENT));
+        Assert.assertEquals(WaitEngine.getMetrics().get("mutationError.errors"), "1");
+    }
+
+    @Test(description = "A repeatedly detached element is re-checked with backoff, not in a tight loop")
+    public void testDetachedBacksOff() {
+        WaitEngine waits = new WaitEngine(fakeDriver((script, mutation) -> "detached"), Duration.ofMillis(300));
+
+        Assert.expectThrows(TimeoutException.class, () -> waits.budget("detached").visible(ELEMENT));
+        // 25, 50, 100, 200ms: a handful of round trips rather than hundreds
+        Assert.assertTrue(scripts.get() <= 6, "round trips: " + scripts.get());
+    }
+
+    @Test(description = "A wait that spans a navigation re-arms in the new document instead of failing")
+    public void testNavigationDuringWait() {
+        AtomicInteger calls = new AtomicInteger();
+        WaitEngine waits = new WaitEngine(fakeDriver((script, mutation) -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new JavascriptException("javascript error: document unloaded while waiting for result");
+            }
+            return "ready";
+        }), Duration.ofSeconds(5));
+
+        Assert.assertSame(waits.budget("navigation").visible(ELEMENT), ELEMENT);
+        Assert.assertEquals(WaitEngine.getMetrics().get("navigation.errors"), "0");
+        Assert.assertEquals(scripts.get(), 2);
+    }
+
+    @Test(description = "Script errors unrelated to navigation still fail the wait")
+    public void testScriptErrorStillFails() {
+        WaitEngine waits = new WaitEngine(fakeDriver((script, mutation) -> {
+            throw new JavascriptException("javascript error: el.getClientRects is not a function");
+        }), Duration.ofSeconds(5));
+
+        Assert.expectThrows(JavascriptException.class, () -> waits.budget("scriptError").visible(ELEMENT));
+        Assert.assertEquals(WaitEngine.getMetrics().get("scriptError.errors"), "1");
+    }
+
+    private WebDriver fakeDriver(BiFunction<String, Boolean, Object> asyncScript) {
+        return new FakeDriver((proxy, method, args) -> {
+            if ("executeAsyncScript".equals(method.getName())) {
+                scripts.incrementAndGet();
+                String script = (String) args[0];
+                return asyncScript.apply(script, !script.contains("clickable"));
+            }
+            return null;
+        }, JavascriptExecutor.class).get();
+    }
+}
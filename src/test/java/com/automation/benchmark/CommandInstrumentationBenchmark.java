@@ -0,0 +1,78 @@
+package com.automation.benchmark;
+
+import com.automation.analytics.CommandAuditor;
+import com.automation.analytics.CommandLatencyRecorder;
+import com.automation.analytics.TestAnalyticsLogger;
+import com.automation.support.FakeDriver;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures what the command instrumentation adds to each WebDriver call, using
+ * a do-nothing driver so only the decorator and listeners are timed. A real
+ * command costs a local HTTP round trip (hundreds of microseconds at least).
+ *
+ * Not part of testng.xml; runs in the "benchmark" group of benchmark.xml with
+ * mvn test -Pbenchmark, or alone with: mvn test -Dtest=CommandInstrumentationBenchmark
+ */
+public class CommandInstrumentationBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 500_000;
+
+    private final WebDriver driver = new FakeDriver((proxy, method, args) -> "title").get();
+
+    @Test(groups = "benchmark", description = "Per-command cost of the decorator, latency histograms and command auditor")
+    public void benchmarkInstrumentationOverhead() {
+        Level previous = LogManager.getLogger(CommandAuditor.class).getLevel();
+        Configurator.setLevel(CommandAuditor.class.getName(), Level.WARN);
+        try {
+            WebDriver bare = new EventFiringDecorator<>(WebDriver.class, new WebDriverListener() { }).decorate(driver);
+            WebDriver latency = new EventFiringDecorator<>(WebDriver.class,
+                    new CommandLatencyRecorder("benchmark")).decorate(driver);
+            WebDriver audit = new EventFiringDecorator<>(WebDriver.class, new CommandAuditor("benchmark")).decorate(driver);
+            WebDriver both = new EventFiringDecorator<>(WebDriver.class,
+                    new CommandAuditor("benchmark"), new CommandLatencyRecorder("benchmark")).decorate(driver);
+
+            // Warm every path first so shared decorator code is not charged to one variant
+            measure(driver, WARMUP);
+            measure(bare, WARMUP);
+            measure(latency, WARMUP);
+            measure(audit, WARMUP);
+            measure(both, WARMUP);
+
+            Map<String, String> results = new LinkedHashMap<>();
+            results.put("rawNsPerCall", String.valueOf(measure(driver, ITERATIONS)));
+            results.put("decoratorNsPerCall", String.valueOf(measure(bare, ITERATIONS)));
+            results.put("latencyNsPerCall", String.valueOf(measure(latency, ITERATIONS)));
+            results.put("auditNsPerCall", String.valueOf(measure(audit, ITERATIONS)));
+            results.put("latencyAndAuditNsPerCall", String.valueOf(measure(both, ITERATIONS)));
+            results.put("selfReportedOverheadNs", CommandLatencyRecorder.getMetrics().get("overheadNsPerCommand"));
+            results.put("iterations", String.valueOf(ITERATIONS));
+            TestAnalyticsLogger.getInstance().logMetrics("webdriver.instrumentation.benchmark", results);
+            System.out.println("Command instrumentation benchmark: " + results);
+        } finally {
+            Configurator.setLevel(CommandAuditor.class.getName(), previous);
+        }
+    }
+
+    private long measure(WebDriver target, int iterations) {
+        String sink = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = target.getTitle();
+        }
+        long nsPerCall = (System.nanoTime() - start) / iterations;
+        Assert.assertEquals(sink, "title");
+        return nsPerCall;
+    }
+}
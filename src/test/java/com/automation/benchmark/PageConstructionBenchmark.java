@@ -0,0 +1,72 @@
+package com.automation.benchmark;
+
+import com.automation.analytics.TestAnalyticsLogger;
+import com.automation.base.BasePage;
+import com.automation.pages.LoginPage;
+import com.automation.support.FakeDriver;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Compares page object construction with generated locator binders against the
+ * PageFactory reflection paths. No browser is involved: construction issues no
+ * WebDriver commands, so a do-nothing driver is enough.
+ *
+ * Not part of testng.xml; runs in the "benchmark" group of benchmark.xml with
+ * mvn test -Pbenchmark, or alone with: mvn test -Dtest=PageConstructionBenchmark
+ */
+public class PageConstructionBenchmark {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 100_000;
+
+    private final WebDriver driver = new FakeDriver((proxy, method, args) -> null, JavascriptExecutor.class).get();
+
+    @Test(groups = "benchmark", description = "Generated binders vs PageFactory for LoginPage construction")
+    public void benchmarkLoginPageConstruction() {
+        Level previous = LogManager.getLogger(BasePage.class).getLevel();
+        Configurator.setLevel(BasePage.class.getName(), Level.WARN);
+        try {
+            // Warm every path first so JIT compilation of the shared PageFactory code is not charged to one variant
+            measure("generated", "true", WARMUP);
+            measure("reflection", "true", WARMUP);
+            measure("reflection", "false", WARMUP);
+
+            Map<String, String> results = new LinkedHashMap<>();
+            results.put("generatedNsPerPage", String.valueOf(measure("generated", "true", ITERATIONS)));
+            results.put("cachedProxyNsPerPage", String.valueOf(measure("reflection", "true", ITERATIONS)));
+            results.put("pageFactoryNsPerPage", String.valueOf(measure("reflection", "false", ITERATIONS)));
+            results.put("iterations", String.valueOf(ITERATIONS));
+            TestAnalyticsLogger.getInstance().logMetrics("page.construction.benchmark", results);
+            System.out.println("Page construction benchmark: " + results);
+        } finally {
+            Configurator.setLevel(BasePage.class.getName(), previous);
+            System.clearProperty("page.binding");
+            System.clearProperty("element.cache");
+        }
+    }
+
+    private long measure(String binding, String elementCache, int iterations) {
+        System.setProperty("page.binding", binding);
+        System.setProperty("element.cache", elementCache);
+        Supplier<LoginPage> factory = () -> new LoginPage(driver);
+
+        Object sink = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = factory.get();
+        }
+        long nsPerPage = (System.nanoTime() - start) / iterations;
+        Assert.assertNotNull(sink);
+        return nsPerPage;
+    }
+}
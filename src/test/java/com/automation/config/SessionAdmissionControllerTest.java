@@ -0,0 +1,146 @@
+package com.automation.config;
+
+import com.automation.driver.StandInHub;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs more parallel sessions than a local fake hub allows and checks that the
+ * admission controller queues them in the JVM instead.
+ */
+public class SessionAdmissionControllerTest {
+
+    private static final String PROVIDER = "BROWSERSTACK";
+
+    private StandInHub hub;
+
+    @BeforeMethod
+    public void startHub() throws IOException {
+        hub = new StandInHub();
+        hub.enforceQuota(2);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopHub() {
+        hub.stop();
+    }
+
+    @Test(description = "Six parallel tests on a two-session plan all run, two at a time")
+    public void testQueuesWithinProviderQuota() throws Exception {
+        SessionAdmissionController admission = new SessionAdmissionController(Map.of(PROVIDER, 2), 10_000);
+        ExecutorService workers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(workers.submit(() -> {
+                    RemoteWebDriver driver = CloudConfig.createRemoteDriver(hub.url(), capabilities(), admission.admit(PROVIDER));
+                    try {
+                        Thread.sleep(150);
+                        return driver.getCurrentUrl();
+                    } finally {
+                        driver.quit();
+                    }
+                }));
+            }
+            for (Future<String> result : results) {
+                Assert.assertEquals(result.get(30, TimeUnit.SECONDS), "about:blank");
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Assert.assertEquals(hub.getRejectedSessions(), 0);
+        Assert.assertEquals(hub.getMaxActiveSessions(), 2);
+        Map<String, String> metrics = admission.getMetrics();
+        Assert.assertEquals(metrics.get("browserstack.admitted"), "6");
+        Assert.assertEquals(metrics.get("browserstack.active"), "0");
+        Assert.assertEquals(metrics.get("browserstack.queued"), "0");
+        Assert.assertTrue(Integer.parseInt(metrics.get("browserstack.maxQueued")) >= 1, metrics.toString());
+        Assert.assertTrue(Double.parseDouble(metrics.get("browserstack.waitMaxMs")) >= 100, metrics.toString());
+    }
+
+    @Test(description = "The fake hub rejects sessions beyond its quota when nothing queues them")
+    public void testHubRejectsOverQuota() throws Exception {
+        RemoteWebDriver first = CloudConfig.createRemoteDriver(hub.url(), capabilities());
+        RemoteWebDriver second = CloudConfig.createRemoteDriver(hub.url(), capabilities());
+        try {
+            CloudConfig.createRemoteDriver(hub.url(), capabilities());
+            Assert.fail("third session should be rejected");
+        } catch (SessionNotCreatedException expected) {
+            Assert.assertTrue(expected.getMessage().contains("Parallel session limit"), expected.getMessage());
+        } finally {
+            first.quit();
+            second.quit();
+        }
+        Assert.assertEquals(hub.getRejectedSessions(), 1);
+    }
+
+    @Test(description = "Queued tests are admitted in arrival order")
+    public void testAdmitsInArrivalOrder() throws Exception {
+        SessionAdmissionController admission = new SessionAdmissionController(Map.of(PROVIDER, 1), 10_000);
+        SessionAdmissionController.Permit held = admission.admit(PROVIDER);
+        List<String> order = new CopyOnWriteArrayList<>();
+        List<Thread> waiters = new ArrayList<>();
+        for (String name : new String[] {"a", "b", "c"}) {
+            Thread waiter = new Thread(() -> {
+                SessionAdmissionController.Permit permit = admission.admit(PROVIDER);
+                order.add(name);
+                permit.release();
+            });
+            waiter.start();
+            waiters.add(waiter);
+            // Let this one join the queue before the next arrives
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!String.valueOf(waiters.size()).equals(admission.getMetrics().get("browserstack.queued"))
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+        held.release();
+        for (Thread waiter : waiters) {
+            waiter.join(5000);
+        }
+        Assert.assertEquals(order, List.of("a", "b", "c"));
+        Assert.assertEquals(admission.getMetrics().get("browserstack.maxQueued"), "3");
+    }
+
+    @Test(description = "A test that cannot get a slot in time fails with SessionNotCreatedException")
+    public void testAdmissionTimeout() {
+        SessionAdmissionController admission = new SessionAdmissionController(Map.of(PROVIDER, 1), 200);
+        SessionAdmissionController.Permit held = admission.admit(PROVIDER);
+        try {
+            admission.admit(PROVIDER);
+            Assert.fail("second admission should time out");
+        } catch (SessionNotCreatedException expected) {
+            Assert.assertTrue(expected.getMessage().contains("quota 1"), expected.getMessage());
+        }
+        held.release();
+        held.release();
+        admission.admit(PROVIDER).release();
+
+        Map<String, String> metrics = admission.getMetrics();
+        Assert.assertEquals(metrics.get("browserstack.timeouts"), "1");
+        Assert.assertEquals(metrics.get("browserstack.admitted"), "2");
+        Assert.assertEquals(metrics.get("browserstack.active"), "0");
+        Assert.assertEquals(metrics.get("browserstack.quota"), "1");
+    }
+
+    private static MutableCapabilities capabilities() {
+        return new MutableCapabilities(Map.of("browserName", "chrome"));
+    }
+}
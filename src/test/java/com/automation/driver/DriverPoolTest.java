@@ -0,0 +1,190 @@
+package com.automation.driver;
+
+import com.automation.support.FakeDriver;
+import com.automation.utils.DriverTracker;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Checks lease/release bookkeeping of the session pool with fake drivers that
+ * only record whether they were quit.
+ */
+public class DriverPoolTest {
+
+    private static final class FakeBrowser {
+        volatile boolean resetFails;
+        final FakeDriver fake = new FakeDriver((proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getWindowHandles":
+                    if (resetFails) {
+                        throw new WebDriverException("browser crashed");
+                    }
+                    return Collections.singleton("main");
+                case "switchTo":
+                case "manage":
+                    return FakeDriver.stub(method.getReturnType(),
+                            (p, m, a) -> m.getReturnType() == WebDriver.class ? proxy : null);
+                default:
+                    return null;
+            }
+        }, JavascriptExecutor.class);
+    }
+
+    private final List<FakeBrowser> launched = new CopyOnWriteArrayList<>();
+
+    @BeforeMethod
+    public void clearLaunches() {
+        launched.clear();
+    }
+
+    private DriverPool pool(int maxSize, int maxUses, long leaseTimeoutMillis) {
+        return new DriverPool(browser -> {
+            FakeBrowser fake = new FakeBrowser();
+            launched.add(fake);
+            return fake.fake.get();
+        }, 0, maxSize, maxUses, leaseTimeoutMillis);
+    }
+
+    @Test(description = "A released session is reset and handed to the next lease")
+    public void testReleasedSessionIsReused() {
+        DriverPool pool = pool(2, 10, 1000);
+        DriverPool.PooledSession first = pool.lease("chrome");
+        pool.release(first, true);
+        DriverPool.PooledSession second = pool.lease("chrome");
+
+        Assert.assertSame(second, first);
+        Assert.assertEquals(second.getUses(), 2);
+        Assert.assertEquals(launched.size(), 1);
+        Map<String, String> metrics = pool.getMetrics();
+        Assert.assertEquals(metrics.get("sessionsCreated"), "1");
+        Assert.assertEquals(metrics.get("sessionsReused"), "1");
+    }
+
+    @Test(description = "Sessions are quit once they reach maxUsesPerSession")
+    public void testMaxUsesRetiresSession() {
+        DriverPool pool = pool(1, 2, 1000);
+        pool.release(pool.lease("chrome"), true);
+        pool.release(pool.lease("chrome"), true);
+
+        Assert.assertEquals(launched.get(0).fake.getQuitCount(), 1);
+        DriverPool.PooledSession fresh = pool.lease("chrome");
+        Assert.assertEquals(fresh.getUses(), 1);
+        Assert.assertEquals(launched.size(), 2);
+    }
+
+    @Test(description = "A session from a failed test is discarded and its slot freed")
+    public void testFailedSessionIsDiscarded() {
+        DriverPool pool = pool(1, 10, 300);
+        DriverPool.PooledSession broken = pool.lease("chrome");
+        pool.release(broken, false);
+
+        Assert.assertEquals(launched.get(0).fake.getQuitCount(), 1);
+        // maxSize is 1, so this only succeeds if the discarded session gave its permit back
+        Assert.assertNotSame(pool.lease("chrome"), broken);
+        Assert.assertEquals(pool.getMetrics().get("sessionsQuit"), "1");
+    }
+
+    @Test(description = "A session that cannot be reset is discarded instead of pooled")
+    public void testResetFailureDiscards() {
+        DriverPool pool = pool(1, 10, 300);
+        DriverPool.PooledSession session = pool.lease("chrome");
+        launched.get(0).resetFails = true;
+        pool.release(session, true);
+
+        Assert.assertEquals(launched.get(0).fake.getQuitCount(), 1);
+        Assert.assertEquals(pool.getMetrics().get("resetFailures"), "1");
+        Assert.assertNotSame(pool.lease("chrome"), session);
+    }
+
+    @Test(description = "Leasing beyond maxSize times out when nothing is released")
+    public void testLeaseTimesOutWhenExhausted() {
+        DriverPool pool = pool(1, 10, 200);
+        pool.lease("chrome");
+        long start = System.nanoTime();
+        try {
+            pool.lease("chrome");
+            Assert.fail("second lease should time out");
+        } catch (RuntimeException expected) {
+            Assert.assertTrue(expected.getMessage().contains("Timed out"), expected.getMessage());
+        }
+        Assert.assertTrue(System.nanoTime() - start >= 200_000_000L);
+    }
+
+    @Test(description = "A lease leaked by a failed setUp is returned as broken when the thread registers again")
+    public void testTrackerReturnsLeakedLease() {
+        DriverPool pool = pool(1, 10, 300);
+        long thread = Thread.currentThread().getId();
+        DriverPool.PooledSession leaked = pool.lease("chrome");
+        DriverTracker.register(thread, "leaky", leaked.getDriver(), () -> pool.release(leaked, false));
+
+        DriverPool.PooledSession next = pool.lease("chrome-other");
+        DriverTracker.register(thread, "next", next.getDriver(), () -> pool.release(next, false));
+        DriverTracker.unregister(thread);
+
+        Assert.assertEquals(launched.get(0).fake.getQuitCount(), 1);
+        Assert.assertNotSame(pool.lease("chrome"), leaked, "chrome slot should be free again");
+    }
+
+    @Test(description = "Reset clears storage for every origin the session visited and leaves a fresh tab")
+    public void testResetClearsEveryVisitedOrigin() {
+        Map<String, List<String>> history = new HashMap<>();
+        history.put("first", List.of("about:blank", "https://app.example.com/login", "https://sso.example.com:8443/auth"));
+        history.put("popup", List.of("https://app.example.com/help", "http://docs.example.org/"));
+        List<String> cleared = new CopyOnWriteArrayList<>();
+        List<String> closed = new CopyOnWriteArrayList<>();
+        String[] current = {"first"};
+
+        WebDriver driver = new FakeDriver((proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getWindowHandles":
+                    return new LinkedHashSet<>(history.keySet());
+                case "getWindowHandle":
+                    return current[0];
+                case "close":
+                    closed.add(current[0]);
+                    return null;
+                case "executeCdpCommand":
+                    if ("Page.getNavigationHistory".equals(args[0])) {
+                        List<Map<String, Object>> entries = new ArrayList<>();
+                        history.get(current[0]).forEach(url -> entries.add(Map.of("url", url)));
+                        return Map.of("entries", entries);
+                    }
+                    if ("Storage.clearDataForOrigin".equals(args[0])) {
+                        cleared.add((String) ((Map<?, ?>) args[1]).get("origin"));
+                    }
+                    return Collections.emptyMap();
+                case "switchTo":
+                    return FakeDriver.stub(WebDriver.TargetLocator.class, (p, m, a) -> {
+                        current[0] = "window".equals(m.getName()) ? (String) a[0] : "fresh";
+                        return proxy;
+                    });
+                case "manage":
+                    return FakeDriver.stub(WebDriver.Options.class, (p, m, a) -> null);
+                default:
+                    return null;
+            }
+        }, JavascriptExecutor.class, HasCdp.class).get();
+
+        DriverPool.reset(driver);
+
+        Assert.assertEquals(new HashSet<>(cleared), Set.of("https://app.example.com",
+                "https://sso.example.com:8443", "http://docs.example.org"));
+        Assert.assertEquals(new HashSet<>(closed), history.keySet());
+        Assert.assertEquals(current[0], "fresh");
+    }
+}
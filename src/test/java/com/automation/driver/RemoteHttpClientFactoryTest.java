@@ -0,0 +1,79 @@
+package com.automation.driver;
+
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Runs remote sessions against a local stand-in hub through the shared client
+ * factory and checks that connections are reused and timeouts applied.
+ */
+public class RemoteHttpClientFactoryTest {
+
+    private StandInHub hub;
+
+    @BeforeMethod
+    public void startHub() throws IOException {
+        hub = new StandInHub();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopHub() {
+        hub.stop();
+    }
+
+    @Test(description = "Sessions reuse the pre-connected keep-alive connections")
+    public void testSessionsShareConnections() throws Exception {
+        RemoteHttpClientFactory factory = new RemoteHttpClientFactory(Duration.ofSeconds(5), Duration.ofSeconds(10));
+        factory.preconnect(hub.url(), 2);
+        Assert.assertEquals(hub.getConnections(), 2, "pre-connect should open one connection per request");
+
+        for (int i = 0; i < 5; i++) {
+            RemoteWebDriver driver = newSession(factory, hub.url());
+            Assert.assertEquals(driver.getCurrentUrl(), "about:blank");
+            driver.quit();
+        }
+
+        Map<String, String> metrics = factory.getMetrics();
+        Assert.assertEquals(metrics.get("clients"), "1");
+        Assert.assertEquals(metrics.get("sessions"), "5");
+        Assert.assertEquals(metrics.get("preconnected"), "2");
+        // 2 status + 5 x (new session, url, quit)
+        Assert.assertEquals(metrics.get("requests"), "17");
+        Assert.assertEquals(hub.getRequests(), 17);
+        Assert.assertEquals(hub.getConnections(), 2, "sessions should not open new connections");
+    }
+
+    @Test(description = "A hub slower than the read timeout fails session creation promptly")
+    public void testReadTimeoutApplies() throws Exception {
+        RemoteHttpClientFactory factory = new RemoteHttpClientFactory(Duration.ofSeconds(5), Duration.ofSeconds(1));
+        hub.delayNewSessions(5000);
+
+        long start = System.nanoTime();
+        try {
+            newSession(factory, hub.url());
+            Assert.fail("session creation should time out");
+        } catch (WebDriverException expected) {
+            // Expected
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        Assert.assertTrue(elapsedMillis < 4000, "timed out after " + elapsedMillis + "ms");
+        Assert.assertEquals(factory.getMetrics().get("failedRequests"), "1");
+    }
+
+    private static RemoteWebDriver newSession(RemoteHttpClientFactory factory, URL hub) {
+        HttpCommandExecutor executor = new HttpCommandExecutor(Collections.emptyMap(), factory.clientConfig(hub), factory);
+        return new RemoteWebDriver(executor, new MutableCapabilities(Map.of("browserName", "chrome")));
+    }
+}
@@ -0,0 +1,130 @@
+package com.automation.driver;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal W3C WebDriver hub on localhost for tests: answers /status, new
+ * session, getCurrentUrl and delete session, and records how many requests
+ * arrived over how many TCP connections. Like a cloud provider it can reject
+ * new sessions beyond a parallel quota.
+ */
+public class StandInHub {
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private volatile int quota = Integer.MAX_VALUE;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile long newSessionDelayMillis;
+
+    public StandInHub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/wd/hub", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public URL url() throws MalformedURLException {
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub");
+    }
+
+    /**
+     * Make new-session requests take this long, like a busy provider.
+     */
+    public void delayNewSessions(long millis) {
+        newSessionDelayMillis = millis;
+    }
+
+    /**
+     * Reject new sessions while this many are open.
+     */
+    public void enforceQuota(int maxSessions) {
+        quota = maxSessions;
+    }
+
+    public int getMaxActiveSessions() {
+        return maxActive.get();
+    }
+
+    public int getRejectedSessions() {
+        return rejected.get();
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    public int getConnections() {
+        return clientPorts.size();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+        String path = exchange.getRequestURI().getPath().substring("/wd/hub".length());
+        String method = exchange.getRequestMethod();
+        String value;
+        if (path.equals("/status")) {
+            value = "{\"ready\":true,\"message\":\"stand-in hub\"}";
+        } else if (path.equals("/session") && method.equals("POST")) {
+            if (newSessionDelayMillis > 0) {
+                try {
+                    Thread.sleep(newSessionDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int open = active.incrementAndGet();
+            if (open > quota) {
+                active.decrementAndGet();
+                rejected.incrementAndGet();
+                respond(exchange, 500, "{\"value\":{\"error\":\"session not created\","
+                        + "\"message\":\"Parallel session limit of " + quota + " reached\",\"stacktrace\":\"\"}}");
+                return;
+            }
+            maxActive.accumulateAndGet(open, Math::max);
+            value = "{\"sessionId\":\"session-" + sessions.incrementAndGet()
+                    + "\",\"capabilities\":{\"browserName\":\"chrome\"}}";
+        } else if (path.endsWith("/url")) {
+            value = "\"about:blank\"";
+        } else if (path.startsWith("/session/") && method.equals("DELETE")) {
+            active.decrementAndGet();
+            value = "null";
+        } else {
+            value = "null";
+        }
+        respond(exchange, 200, "{\"value\":" + value + "}");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
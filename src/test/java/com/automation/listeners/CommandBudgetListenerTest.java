@@ -0,0 +1,209 @@
+package com.automation.listeners;
+
+import com.automation.analytics.CommandAuditor;
+import com.automation.analytics.CommandBudget;
+import com.automation.support.FakeDriver;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.IInvokedMethod;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.ConstructorOrMethod;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Checks budget resolution and enforcement against stub TestNG results and an
+ * auditor fed with synthetic commands.
+ */
+public class CommandBudgetListenerTest {
+
+    private final CommandBudgetListener listener = new CommandBudgetListener();
+
+    // Stand-ins for test methods; only their names and annotations are used
+    @CommandBudget(maxCommands = 3)
+    public void annotated() {
+    }
+
+    public void plain() {
+    }
+
+    @CommandBudget(maxDriverMillis = 30)
+    public void timed() {
+    }
+
+    /**
+     * Stub result for one of the stand-in methods, recording status changes.
+     */
+    private static class StubResult {
+        int status = ITestResult.SUCCESS;
+        Throwable throwable;
+        final ITestResult result;
+        final IInvokedMethod invoked;
+
+        StubResult(String methodName, Map<String, String> parameters) throws NoSuchMethodException {
+            Method method = CommandBudgetListenerTest.class.getMethod(methodName);
+            XmlTest xmlTest = new XmlTest(new XmlSuite());
+            xmlTest.setParameters(new HashMap<>(parameters));
+            ITestNGMethod testMethod = stub(ITestNGMethod.class, (name, args) -> {
+                switch (name) {
+                    case "getMethodName":
+                        return methodName;
+                    case "getConstructorOrMethod":
+                        return new ConstructorOrMethod(method);
+                    default:
+                        return null;
+                }
+            });
+            ITestContext context = stub(ITestContext.class,
+                    (name, args) -> "getCurrentXmlTest".equals(name) ? xmlTest : null);
+            result = stub(ITestResult.class, (name, args) -> {
+                switch (name) {
+                    case "getMethod":
+                        return testMethod;
+                    case "getTestContext":
+                        return context;
+                    case "getStatus":
+                        return status;
+                    case "setStatus":
+                        status = (Integer) args[0];
+                        return null;
+                    case "setThrowable":
+                        throwable = (Throwable) args[0];
+                        return null;
+                    default:
+                        return null;
+                }
+            });
+            invoked = stub(IInvokedMethod.class, (name, args) -> "isTestMethod".equals(name) ? true : null);
+        }
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Answer answer) {
+        return FakeDriver.stub(type, (proxy, method, args) -> answer.answer(method.getName(), args));
+    }
+
+    private static void sendCommands(CommandAuditor auditor, int count, long millisEach) throws Exception {
+        Method getTitle = WebDriver.class.getMethod("getTitle");
+        for (int i = 0; i < count; i++) {
+            auditor.beforeAnyCall(null, getTitle, null);
+            if (millisEach > 0) {
+                Thread.sleep(millisEach);
+            }
+            auditor.afterAnyCall(null, getTitle, null, "title");
+        }
+    }
+
+    /**
+     * Run a test through the listener: setUp commands, then test commands.
+     */
+    private static void run(CommandBudgetListener listener, StubResult stub, int setUpCommands, long setUpMillisEach,
+            int testCommands) throws Exception {
+        CommandAuditor auditor = CommandAuditor.start("budget-test");
+        try {
+            sendCommands(auditor, setUpCommands, setUpMillisEach);
+            listener.beforeInvocation(stub.invoked, stub.result);
+            sendCommands(auditor, testCommands, 0);
+            listener.afterInvocation(stub.invoked, stub.result);
+        } finally {
+            // Not left current, or the suite's own budget listener would check this unit test against it
+            auditor.finish();
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void clearMode() {
+        System.clearProperty("command.budget.mode");
+    }
+
+    @Test(description = "The annotation wins over per-method and global parameters")
+    public void testAnnotationTakesPrecedence() throws Exception {
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("command.budget.annotated.maxCommands", "100");
+        parameters.put("command.budget.maxCommands", "100");
+        StubResult stub = new StubResult("annotated", parameters);
+
+        run(listener, stub, 2, 0, 4);
+
+        Assert.assertEquals(stub.status, ITestResult.FAILURE);
+        Assert.assertTrue(stub.throwable.getMessage().contains("4 commands (budget 3)"), stub.throwable.getMessage());
+    }
+
+    @Test(description = "A per-method parameter wins over the global one")
+    public void testPerMethodParameterBeatsGlobal() throws Exception {
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("command.budget.plain.maxCommands", "10");
+        parameters.put("command.budget.maxCommands", "2");
+        StubResult stub = new StubResult("plain", parameters);
+
+        run(listener, stub, 2, 0, 3);
+
+        Assert.assertEquals(stub.status, ITestResult.SUCCESS);
+        Assert.assertNull(stub.throwable);
+    }
+
+    @Test(description = "The global parameter applies when nothing more specific is set")
+    public void testGlobalParameter() throws Exception {
+        StubResult stub = new StubResult("plain", Map.of("command.budget.maxCommands", "2"));
+
+        run(listener, stub, 1, 0, 3);
+
+        Assert.assertEquals(stub.status, ITestResult.FAILURE);
+        Assert.assertTrue(stub.throwable instanceof AssertionError);
+        Assert.assertTrue(stub.throwable.getMessage().contains("(test)=3 commands"), stub.throwable.getMessage());
+    }
+
+    @Test(description = "In warn mode an over-budget test keeps its status")
+    public void testWarnModeDoesNotFail() throws Exception {
+        System.setProperty("command.budget.mode", "warn");
+        StubResult stub = new StubResult("plain", Map.of("command.budget.maxCommands", "1"));
+
+        run(listener, stub, 1, 0, 2);
+
+        Assert.assertEquals(stub.status, ITestResult.SUCCESS);
+        Assert.assertNull(stub.throwable);
+    }
+
+    @Test(description = "A test that already failed is not rewritten")
+    public void testFailedTestKeepsItsOwnError() throws Exception {
+        StubResult stub = new StubResult("plain", Map.of("command.budget.maxCommands", "1"));
+        stub.status = ITestResult.FAILURE;
+
+        run(listener, stub, 1, 0, 2);
+
+        Assert.assertEquals(stub.status, ITestResult.FAILURE);
+        Assert.assertNull(stub.throwable, "The original failure should not be replaced");
+    }
+
+    @Test(description = "Driver time spent in setUp does not count against the driver-time budget")
+    public void testSetUpExcludedFromDriverTime() throws Exception {
+        StubResult stub = new StubResult("timed", Map.of());
+
+        // 3 x 40ms in setUp would blow a 30ms budget on its own
+        run(listener, stub, 3, 40, 2);
+
+        Assert.assertEquals(stub.status, ITestResult.SUCCESS);
+        Assert.assertNull(stub.throwable);
+    }
+
+    @Test(description = "Commands sent in setUp do not count against the command budget")
+    public void testSetUpExcludedFromCommandCount() throws Exception {
+        StubResult stub = new StubResult("annotated", Map.of());
+
+        run(listener, stub, 10, 0, 3);
+
+        Assert.assertEquals(stub.status, ITestResult.SUCCESS);
+        Assert.assertNull(stub.throwable);
+    }
+}
@@ -0,0 +1,144 @@
+package com.automation.network;
+
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+/**
+ * Records traffic to a local stand-in site through the HAR proxy, then replays
+ * it with the site stopped.
+ */
+public class HarProxyTest {
+
+    private HttpServer site;
+    private Path archive;
+
+    @BeforeMethod
+    public void startSite() throws IOException {
+        site = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        site.createContext("/practice-test-login/", exchange -> {
+            byte[] body = "<html><input id=\"username\"></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html");
+            exchange.getResponseHeaders().add("Set-Cookie", "session=abc; Path=/; Expires=Wed, 21 Oct 2026 07:28:00 GMT");
+            exchange.getResponseHeaders().add("Set-Cookie", "theme=dark; Path=/");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        site.start();
+        archive = Files.createTempDirectory("har-test").resolve("recording.har");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopSite() {
+        site.stop(0);
+    }
+
+    @Test(description = "Recorded responses are replayed without the origin server")
+    public void testRecordThenReplayOffline() throws Exception {
+        String url = "http://127.0.0.1:" + site.getAddress().getPort() + "/practice-test-login/";
+
+        HarProxy recorder = new HarProxy(HarProxy.Mode.RECORD, archive);
+        recorder.start();
+        HttpResponse<String> recorded = get(recorder, url);
+        recorder.stop();
+        Assert.assertEquals(recorded.statusCode(), 200);
+        Assert.assertTrue(Files.exists(archive), "Archive should be written when recording stops");
+
+        site.stop(0);
+
+        HarProxy replayer = new HarProxy(HarProxy.Mode.REPLAY, archive);
+        replayer.start();
+        try {
+            HttpResponse<String> replayed = get(replayer, url);
+            Assert.assertEquals(replayed.statusCode(), 200);
+            Assert.assertEquals(replayed.body(), recorded.body());
+            Assert.assertEquals(replayed.headers().firstValue("Content-Type").orElse(""), "text/html");
+            // Each cookie survives as its own header line; joining them would split the Expires date
+            Assert.assertEquals(replayed.headers().allValues("Set-Cookie"), List.of(
+                    "session=abc; Path=/; Expires=Wed, 21 Oct 2026 07:28:00 GMT", "theme=dark; Path=/"));
+
+            HttpResponse<String> missing = get(replayer, url + "not-recorded");
+            Assert.assertEquals(missing.statusCode(), 404);
+            Assert.assertEquals(replayer.getMetrics().get("replayHits"), "1");
+            Assert.assertEquals(replayer.getMetrics().get("replayMisses"), "1");
+        } finally {
+            replayer.stop();
+        }
+    }
+
+    @Test(description = "HTTPS requests are answered inside the CONNECT tunnel with repeated headers intact")
+    public void testReplayThroughTlsTunnel() throws Exception {
+        String url = "https://localhost:8443/account";
+        HarArchive recording = new HarArchive();
+        recording.add(new HarArchive.Exchange("GET", url, 200, List.of(
+                HarArchive.header("Content-Type", "text/html"),
+                HarArchive.header("Set-Cookie", "a=1; Path=/"),
+                HarArchive.header("Set-Cookie", "b=2; Path=/; Expires=Thu, 01 Jan 2037 00:00:00 GMT")),
+                "<html>account</html>".getBytes(StandardCharsets.UTF_8)));
+        recording.save(archive);
+
+        HarProxy replayer = new HarProxy(HarProxy.Mode.REPLAY, archive);
+        replayer.start();
+        try {
+            HttpResponse<String> replayed = get(replayer, url);
+            Assert.assertEquals(replayed.statusCode(), 200);
+            Assert.assertEquals(replayed.body(), "<html>account</html>");
+            Assert.assertEquals(replayed.headers().allValues("Set-Cookie"), List.of(
+                    "a=1; Path=/", "b=2; Path=/; Expires=Thu, 01 Jan 2037 00:00:00 GMT"));
+            Assert.assertEquals(replayer.getMetrics().get("replayHits"), "1");
+        } finally {
+            replayer.stop();
+        }
+    }
+
+    private HttpResponse<String> get(HarProxy proxy, String url) throws Exception {
+        String[] address = proxy.getAddress().split(":");
+        HttpClient client = HttpClient.newBuilder()
+                .proxy(ProxySelector.of(new InetSocketAddress(address[0], Integer.parseInt(address[1]))))
+                .sslContext(trustAll())
+                .build();
+        return client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // The proxy presents its own self-signed certificate, as browsers see with acceptInsecureCerts
+    private static SSLContext trustAll() throws Exception {
+        TrustManager trustAll = new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        };
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, new TrustManager[] {trustAll}, null);
+        return context;
+    }
+}
@@ -0,0 +1,52 @@
+package com.automation.network;
+
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Checks how blocklist globs are matched against request URLs.
+ */
+public class RequestBlockerTest {
+
+    @Test(description = "Globs see the URL without its query string, so a tracker name in a parameter does not block the page")
+    public void testQueryIgnoredByDefault() {
+        List<RequestBlocker.Glob> globs = RequestBlocker.compile("*google-analytics.com*");
+
+        Assert.assertTrue(RequestBlocker.matchesAny(globs, "https://www.google-analytics.com/collect?v=1"));
+        Assert.assertFalse(RequestBlocker.matchesAny(globs, "https://app.example.com/login?ref=google-analytics.com"));
+        Assert.assertFalse(RequestBlocker.matchesAny(globs, "https://app.example.com/page#google-analytics.com"));
+    }
+
+    @Test(description = "A glob containing '?' is matched against the full URL")
+    public void testQueryPattern() {
+        List<RequestBlocker.Glob> globs = RequestBlocker.compile("*/api/*?*debug=1*");
+
+        Assert.assertTrue(RequestBlocker.matchesAny(globs, "https://app.example.com/api/users?debug=1"));
+        Assert.assertFalse(RequestBlocker.matchesAny(globs, "https://app.example.com/api/users?debug=0"));
+    }
+
+    @Test(description = "Query stripping stops at whichever of '?' or '#' comes first")
+    public void testStripQuery() {
+        Assert.assertEquals(RequestBlocker.stripQuery("https://a.test/x?y=1#z"), "https://a.test/x");
+        Assert.assertEquals(RequestBlocker.stripQuery("https://a.test/x#z?y=1"), "https://a.test/x");
+        Assert.assertEquals(RequestBlocker.stripQuery("https://a.test/x"), "https://a.test/x");
+    }
+
+    @Test(description = "Upload bytes avoided come from Content-Length, or from the body when it is missing")
+    public void testRequestBodyBytes() {
+        HttpRequest declared = new HttpRequest(HttpMethod.POST, "https://www.google-analytics.com/collect");
+        declared.setHeader("Content-Length", "512");
+        HttpRequest undeclared = new HttpRequest(HttpMethod.POST, "https://www.google-analytics.com/collect");
+        undeclared.setContent(Contents.utf8String("v=1&t=pageview"));
+
+        Assert.assertEquals(RequestBlocker.requestBodyBytes(declared), 512);
+        Assert.assertEquals(RequestBlocker.requestBodyBytes(undeclared), 14);
+        Assert.assertEquals(RequestBlocker.requestBodyBytes(
+                new HttpRequest(HttpMethod.GET, "https://fonts.gstatic.com/font.woff2")), 0);
+    }
+}
@@ -0,0 +1,130 @@
+package com.automation.state;
+
+import com.automation.support.FakeDriver;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Captures and restores storage state through a fake Chromium driver and
+ * checks the memory/disk snapshot cache.
+ */
+public class StorageStateTest {
+
+    private final List<String> cdpCommands = new ArrayList<>();
+    private final List<Map<String, Object>> cdpParams = new ArrayList<>();
+    private Path directory;
+
+    @BeforeMethod
+    public void reset() throws IOException {
+        cdpCommands.clear();
+        cdpParams.clear();
+        directory = Files.createTempDirectory("storage-state-test");
+    }
+
+    @SuppressWarnings("unchecked")
+    private WebDriver chromium() {
+        return new FakeDriver((proxy, method, args) -> {
+            switch (method.getName()) {
+                case "executeScript":
+                    Map<String, Object> storage = new LinkedHashMap<>();
+                    storage.put("origin", "https://app.test");
+                    storage.put("local", Collections.singletonMap("theme", "dark"));
+                    storage.put("session", Collections.singletonMap("tab", "2"));
+                    return storage;
+                case "executeCdpCommand":
+                    cdpCommands.add((String) args[0]);
+                    cdpParams.add((Map<String, Object>) args[1]);
+                    if ("Network.getAllCookies".equals(args[0])) {
+                        Map<String, Object> cookie = new LinkedHashMap<>();
+                        cookie.put("name", "session");
+                        cookie.put("value", "abc");
+                        cookie.put("domain", "app.test");
+                        cookie.put("path", "/");
+                        cookie.put("expires", -1);
+                        return Collections.singletonMap("cookies", Collections.singletonList(cookie));
+                    }
+                    if ("Page.addScriptToEvaluateOnNewDocument".equals(args[0])) {
+                        return Collections.singletonMap("identifier", "7");
+                    }
+                    return Collections.emptyMap();
+                default:
+                    return null;
+            }
+        }, JavascriptExecutor.class, HasCdp.class).get();
+    }
+
+    @Test(description = "A snapshot restores cookies and storage, and its new-document script can be removed")
+    public void testCaptureRestoreAndRemove() {
+        WebDriver driver = chromium();
+        StorageState state = StorageState.capture("signed-in", driver);
+
+        Assert.assertEquals(state.getOrigin(), "https://app.test");
+        Assert.assertEquals(state.getLocalStorage(), Collections.singletonMap("theme", "dark"));
+        Assert.assertEquals(state.getSessionStorage(), Collections.singletonMap("tab", "2"));
+        Assert.assertEquals(state.getCookies().get(0).getValue(), "abc");
+
+        cdpCommands.clear();
+        cdpParams.clear();
+        String identifier = state.restore(driver);
+        Assert.assertEquals(identifier, "7");
+        Assert.assertEquals(cdpCommands, List.of("Network.setCookie", "Page.enable", "Page.addScriptToEvaluateOnNewDocument"));
+        Assert.assertFalse(cdpParams.get(0).containsKey("expires"), "Session cookies are restored without an expiry");
+        Assert.assertTrue(String.valueOf(cdpParams.get(2).get("source")).contains("\"theme\":\"dark\""));
+
+        StorageState.removeRestoreScript(driver, identifier);
+        Assert.assertEquals(cdpCommands.get(3), "Page.removeScriptToEvaluateOnNewDocument");
+        Assert.assertEquals(cdpParams.get(3), Collections.singletonMap("identifier", "7"));
+    }
+
+    @Test(description = "Snapshots are served from memory, then from disk by a new cache")
+    public void testCacheMemoryAndDiskHits() {
+        StorageState state = StorageState.capture("signed-in", chromium());
+        StorageStateCache cache = new StorageStateCache(directory, Duration.ofMinutes(5));
+        cache.put("signed-in", state);
+
+        Assert.assertSame(cache.get("signed-in"), state);
+        Assert.assertEquals(cache.getMetrics().get("memoryHits"), "1");
+
+        StorageStateCache restarted = new StorageStateCache(directory, Duration.ofMinutes(5));
+        StorageState fromDisk = restarted.get("signed-in");
+        Assert.assertNotNull(fromDisk);
+        Assert.assertEquals(fromDisk.getLocalStorage(), state.getLocalStorage());
+        Assert.assertEquals(restarted.getMetrics().get("diskHits"), "1");
+    }
+
+    @Test(description = "Snapshots older than the maximum age are treated as missing")
+    public void testStaleSnapshotIsMiss() {
+        StorageStateCache cache = new StorageStateCache(directory, Duration.ZERO);
+        cache.put("signed-in", StorageState.capture("signed-in", chromium()));
+
+        Assert.assertNull(cache.get("signed-in"));
+        Assert.assertEquals(cache.getMetrics().get("misses"), "1");
+    }
+
+    @Test(description = "Names that are not valid file names are stored under a sanitized name")
+    public void testUnsafeNamesAreSanitized() throws IOException {
+        StorageStateCache cache = new StorageStateCache(directory, Duration.ofMinutes(5));
+        cache.put("admin/eu:west", StorageState.capture("admin/eu:west", chromium()));
+
+        Assert.assertTrue(Files.exists(directory.resolve("admin_eu_west.json")));
+        try (Stream<Path> files = Files.list(directory)) {
+            Assert.assertEquals(files.count(), 1L, "No temporary files should be left behind");
+        }
+        Assert.assertNotNull(new StorageStateCache(directory, Duration.ofMinutes(5)).get("admin/eu:west"));
+    }
+}
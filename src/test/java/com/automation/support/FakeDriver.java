@@ -0,0 +1,97 @@
+package com.automation.support;
+
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A WebDriver stand-in for unit tests that run without a browser.
+ *
+ * Object methods are answered by identity, as decorators and identity-keyed
+ * registries expect, and quit() calls are counted. Every other call goes to
+ * the test's {@link Answer}; a null answer for a primitive result becomes
+ * false/0.
+ */
+public final class FakeDriver {
+
+    /**
+     * Answers the calls a test cares about; return null for the rest.
+     */
+    @FunctionalInterface
+    public interface Answer {
+        Object answer(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+
+    private final AtomicInteger quits = new AtomicInteger();
+    private final WebDriver driver;
+
+    /**
+     * A driver that answers every command with null.
+     */
+    public FakeDriver() {
+        this((proxy, method, args) -> null);
+    }
+
+    /**
+     * A driver backed by {@code answer}, also implementing {@code extraInterfaces}
+     * (JavascriptExecutor, HasCdp, ...).
+     */
+    public FakeDriver(Answer answer, Class<?>... extraInterfaces) {
+        this.driver = stub(WebDriver.class, (proxy, method, args) -> {
+            if ("quit".equals(method.getName())) {
+                quits.incrementAndGet();
+            }
+            return answer.answer(proxy, method, args);
+        }, extraInterfaces);
+    }
+
+    public WebDriver get() {
+        return driver;
+    }
+
+    public int getQuitCount() {
+        return quits.get();
+    }
+
+    /**
+     * A proxy of {@code type} (plus {@code extraInterfaces}) with identity-based
+     * Object methods and every other call sent to {@code answer}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Answer answer, Class<?>... extraInterfaces) {
+        Class<?>[] interfaces = new Class<?>[extraInterfaces.length + 1];
+        interfaces[0] = type;
+        System.arraycopy(extraInterfaces, 0, interfaces, 1, extraInterfaces.length);
+        String name = "Fake" + type.getSimpleName();
+        return (T) Proxy.newProxyInstance(FakeDriver.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return name;
+                default:
+                    return orDefault(answer.answer(proxy, method, args), method);
+            }
+        });
+    }
+
+    private static Object orDefault(Object value, Method method) {
+        if (value != null || !method.getReturnType().isPrimitive()) {
+            return value;
+        }
+        if (method.getReturnType() == boolean.class) {
+            return false;
+        }
+        if (method.getReturnType() == long.class) {
+            return 0L;
+        }
+        if (method.getReturnType() == int.class) {
+            return 0;
+        }
+        return null;
+    }
+}
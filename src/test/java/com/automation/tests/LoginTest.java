@@ -1,5 +1,6 @@
 package com.automation.tests;
 
+import com.automation.analytics.CommandBudget;
 import com.automation.base.BaseTest;
 import com.automation.pages.DashboardPage;
 import com.automation.pages.LoginPage;
@@ -30,6 +31,7 @@ public class LoginTest extends BaseTest {
         @Severity(SeverityLevel.CRITICAL)
         @Story("Valid Login")
         @Description("Test to verify that user can login successfully with valid username and password")
+        @CommandBudget(maxCommands = 40, maxDriverMillis = 8000)
         public void testValidLogin() {
                 logger.info("Starting valid login test");
 
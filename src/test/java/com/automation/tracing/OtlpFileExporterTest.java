@@ -0,0 +1,146 @@
+package com.automation.tracing;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes a traced test to OTLP/JSON files, then replays them to a local
+ * stand-in collector.
+ */
+public class OtlpFileExporterTest {
+
+    private HttpServer collector;
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    // Batches containing this text are rejected with 503
+    private volatile String rejecting;
+    private Path dir;
+
+    @BeforeMethod
+    public void startCollector() throws IOException {
+        received.clear();
+        rejecting = null;
+        collector = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        collector.createContext("/", exchange -> {
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (rejecting != null && body.contains(rejecting)) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            received.add(exchange.getRequestURI().getPath() + " " + body);
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        collector.start();
+        dir = Files.createTempDirectory("otlp-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopCollector() {
+        collector.stop(0);
+    }
+
+    @Test(description = "Spans and metrics land in OTLP/JSON files and replay to a collector")
+    public void testWriteThenReplay() throws Exception {
+        OtlpFileExporter files = new OtlpFileExporter(dir, 16, 10L * 1024 * 1024, 5);
+        TestTracing tracing = new TestTracing(files.spanExporter(), files.metricExporter());
+        tracing.startTest("testOffline", "com.example.OfflineTest", "chrome", "LOCAL");
+        tracing.recordCommand("get", 2_000_000, false);
+        tracing.endTest("PASSED", null);
+        tracing.shutdown();
+
+        Path traceFile = dir.resolve("traces-0001.jsonl");
+        Path metricFile = dir.resolve("metrics-0001.jsonl");
+        Assert.assertTrue(Files.exists(traceFile), "trace file should be written");
+        Assert.assertTrue(Files.exists(metricFile), "metric file should be written");
+
+        JsonObject traces = JsonParser.parseString(Files.readAllLines(traceFile).get(0)).getAsJsonObject();
+        JsonObject span = traces.getAsJsonArray("resourceSpans").get(0).getAsJsonObject()
+                .getAsJsonArray("scopeSpans").get(0).getAsJsonObject()
+                .getAsJsonArray("spans").get(0).getAsJsonObject();
+        Assert.assertEquals(span.get("name").getAsString(), "testOffline");
+        Assert.assertEquals(span.get("traceId").getAsString().length(), 32);
+        String metrics = String.join("\n", Files.readAllLines(metricFile));
+        Assert.assertTrue(metrics.contains("\"webdriver.command.duration\""), metrics);
+        Assert.assertTrue(metrics.contains("\"test.runs\""), metrics);
+        Assert.assertEquals(files.getMetrics().get("traces.dropped"), "0");
+
+        URI endpoint = URI.create("http://127.0.0.1:" + collector.getAddress().getPort());
+        Map<String, Long> result = new OtlpReplay(endpoint).replay(dir);
+        Assert.assertEquals(result.get("failed"), Long.valueOf(0));
+        Assert.assertEquals(result.get("files"), Long.valueOf(2));
+        Assert.assertTrue(received.stream().anyMatch(r -> r.startsWith("/v1/traces {\"resourceSpans\"")));
+        Assert.assertTrue(received.stream().anyMatch(r -> r.startsWith("/v1/metrics {\"resourceMetrics\"")));
+
+        // Replayed files are renamed, so a second run sends nothing
+        Assert.assertEquals(new OtlpReplay(endpoint).replay(dir).get("sent"), Long.valueOf(0));
+    }
+
+    @Test(description = "Files rotate at the size limit and only the newest are kept")
+    public void testRotationAndDrops() throws Exception {
+        OtlpFileWriter writer = new OtlpFileWriter(dir, "traces", 64, 100, 2);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(writer.offer("{\"batch\":" + i + ",\"padding\":\"" + "x".repeat(60) + "\"}"));
+        }
+        Assert.assertTrue(writer.flush(5, java.util.concurrent.TimeUnit.SECONDS));
+        writer.close(5, java.util.concurrent.TimeUnit.SECONDS);
+        Assert.assertFalse(writer.offer("{}"), "closed writer should drop");
+
+        try (Stream<Path> listing = Files.list(dir)) {
+            List<String> names = listing.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+            Assert.assertEquals(names, List.of("traces-0004.jsonl", "traces-0005.jsonl"));
+        }
+        Assert.assertEquals(writer.getWritten(), 5);
+        Assert.assertEquals(writer.getRotations(), 4);
+        Assert.assertEquals(writer.getDropped(), 1);
+    }
+
+    @Test(description = "After a partial failure only the rejected lines are sent again")
+    public void testPartialReplayDoesNotDuplicate() throws Exception {
+        Path file = dir.resolve("traces-0001.jsonl");
+        Files.write(file, List.of("{\"batch\":1}", "{\"batch\":2}", "{\"batch\":3}"), StandardCharsets.UTF_8);
+        URI endpoint = URI.create("http://127.0.0.1:" + collector.getAddress().getPort());
+
+        rejecting = "\"batch\":2";
+        Map<String, Long> first = new OtlpReplay(endpoint).replay(dir);
+        Assert.assertEquals(first.get("sent"), Long.valueOf(2));
+        Assert.assertEquals(first.get("failed"), Long.valueOf(1));
+        Assert.assertEquals(Files.readAllLines(file, StandardCharsets.UTF_8), List.of("{\"batch\":2}"));
+
+        rejecting = null;
+        Map<String, Long> second = new OtlpReplay(endpoint).replay(dir);
+        Assert.assertEquals(second.get("sent"), Long.valueOf(1));
+        Assert.assertEquals(second.get("files"), Long.valueOf(1));
+        Assert.assertEquals(received, List.of("/v1/traces {\"batch\":1}", "/v1/traces {\"batch\":3}",
+                "/v1/traces {\"batch\":2}"));
+    }
+
+    @Test(description = "Signal paths are appended to the endpoint's own path")
+    public void testEndpointBasePathKept() {
+        Assert.assertEquals(OtlpReplay.signalUri(URI.create("http://collector:4318"), "traces"),
+                URI.create("http://collector:4318/v1/traces"));
+        Assert.assertEquals(OtlpReplay.signalUri(URI.create("https://gateway.example.com/otel/"), "metrics"),
+                URI.create("https://gateway.example.com/otel/v1/metrics"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.automation.tracing;
+
+import com.automation.support.FakeDriver;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the test / step / command span hierarchy without a browser.
+ */
+public class TestTracingTest {
+
+    private static class CollectingExporter implements SpanExporter {
+        private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            spans.addAll(batch);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+
+    @Test(description = "Commands nest under steps, steps under the test span")
+    public void testSpanHierarchy() {
+        CollectingExporter exporter = new CollectingExporter();
+        TestTracing tracing = new TestTracing(exporter, null);
+        WebDriver fake = new FakeDriver((proxy, method, args) -> "title").get();
+        WebDriver driver = new EventFiringDecorator<>(WebDriver.class, new CommandTracer(tracing)).decorate(fake);
+        StepTracingListener steps = new StepTracingListener(() -> tracing);
+
+        tracing.startTest("testSomething", "com.example.SomeTest", "chrome", "LOCAL");
+        tracing.setSessionId("session-1");
+        StepResult step = new StepResult().setName("Open login page");
+        steps.afterStepStart(step);
+        driver.getTitle();
+        step.setStatus(Status.PASSED);
+        steps.beforeStepStop(step);
+        driver.getCurrentUrl();
+        tracing.endTest("PASSED", null);
+        tracing.shutdown();
+
+        Map<String, SpanData> byName = exporter.spans.stream()
+                .collect(Collectors.toMap(SpanData::getName, Function.identity()));
+        SpanData test = byName.get("testSomething");
+        SpanData stepSpan = byName.get("Open login page");
+        Assert.assertNotNull(test);
+        Assert.assertEquals(test.getAttributes().get(TestTracing.SESSION_ID), "session-1");
+        Assert.assertEquals(test.getAttributes().get(TestTracing.BROWSER), "chrome");
+        Assert.assertEquals(stepSpan.getParentSpanId(), test.getSpanId());
+        Assert.assertEquals(byName.get("getTitle").getParentSpanId(), stepSpan.getSpanId());
+        Assert.assertEquals(byName.get("getCurrentUrl").getParentSpanId(), test.getSpanId());
+        Assert.assertEquals(tracing.getMetrics().get("commandSpans"), "2");
+    }
+}
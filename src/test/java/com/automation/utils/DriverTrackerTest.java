@@ -0,0 +1,63 @@
+package com.automation.utils;
+
+import com.automation.support.FakeDriver;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the reaper's idle and dead-owner rules with fake drivers that count
+ * how often they are quit.
+ */
+public class DriverTrackerTest {
+
+    @Test(description = "Only sessions without WebDriver activity for the idle timeout are reaped")
+    public void testIdleMeansNoCommands() throws Exception {
+        long idleThread = -101;
+        long busyThread = -102;
+        FakeDriver idle = new FakeDriver();
+        FakeDriver busy = new FakeDriver();
+        DriverTracker.register(idleThread, "idleTest", idle.get());
+        DriverTracker.register(busyThread, "busyTest", busy.get());
+
+        long registeredAt = System.currentTimeMillis();
+        Thread.sleep(50);
+        WebDriver observed = new EventFiringDecorator<>(WebDriver.class, DriverTracker.activityListener(busyThread))
+                .decorate(busy.get());
+        observed.getTitle();
+
+        DriverTracker.reapOrphans(registeredAt + DriverTracker.idleTimeoutMillis() + 10);
+
+        Assert.assertEquals(idle.getQuitCount(), 1, "idle session should be quit");
+        Assert.assertEquals(busy.getQuitCount(), 0, "session with recent commands should survive");
+        DriverTracker.unregister(busyThread);
+    }
+
+    @Test(description = "Sessions whose owner thread died are reaped")
+    public void testDeadOwnerIsReaped() throws Exception {
+        FakeDriver orphan = new FakeDriver();
+        Thread owner = new Thread(() -> DriverTracker.register(Thread.currentThread().getId(), "orphan", orphan.get()));
+        owner.start();
+        owner.join();
+
+        DriverTracker.reapOrphans(System.currentTimeMillis());
+
+        Assert.assertEquals(orphan.getQuitCount(), 1);
+    }
+
+    @Test(description = "A session with its own release (shared browser context) is ended through it, never quit")
+    public void testCustomReleaseReplacesQuit() {
+        long thread = -103;
+        FakeDriver host = new FakeDriver();
+        AtomicInteger released = new AtomicInteger();
+        DriverTracker.register(thread, "contextTest", host.get(), released::incrementAndGet);
+
+        DriverTracker.reapOrphans(System.currentTimeMillis() + DriverTracker.idleTimeoutMillis() + 10);
+
+        Assert.assertEquals(released.get(), 1);
+        Assert.assertEquals(host.getQuitCount(), 0, "the shared browser must stay up");
+    }
+}